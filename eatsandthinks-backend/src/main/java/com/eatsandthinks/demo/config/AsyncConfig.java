@@ -0,0 +1,51 @@
+package com.eatsandthinks.demo.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Pool para trabajos en segundo plano que no deben retrasar la respuesta HTTP
+     * (propagar cambios de perfil, miniaturas...). La cola es acotada: si se llena,
+     * la tarea la ejecuta el hilo que la envía en lugar de perderse.
+     */
+    @Bean(name = "backgroundExecutor")
+    public Executor backgroundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("background-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Envíos SSE de notificaciones. Las conexiones abiertas no ocupan hilos; solo se usa uno
+     * mientras una conexión tiene eventos pendientes. Si la cola se llena, la tarea se rechaza
+     * (nunca se ejecuta en el hilo que la envía, que puede ser el del planificador o una
+     * petición HTTP): NotificationStreamService cierra esa conexión y el cliente reconecta.
+     */
+    @Bean(name = "streamExecutor")
+    public Executor streamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("sse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
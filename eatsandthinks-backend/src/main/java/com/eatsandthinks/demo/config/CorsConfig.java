@@ -30,6 +30,7 @@ public class CorsConfig implements WebMvcConfigurer {
                     .allowedOriginPatterns(patterns)
                     .allowedMethods("*")
                     .allowedHeaders("*")
+                    .exposedHeaders("Upload-Offset", "Idempotent-Replayed", "Retry-After")
                     .allowCredentials(true);
         }
     }
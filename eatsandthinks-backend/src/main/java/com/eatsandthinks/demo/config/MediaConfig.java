@@ -2,6 +2,7 @@ package com.eatsandthinks.demo.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -9,6 +10,7 @@ import jakarta.annotation.PostConstruct;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MediaConfig implements WebMvcConfigurer {
@@ -21,6 +23,7 @@ public class MediaConfig implements WebMvcConfigurer {
         try {
             Path path = Paths.get(mediaBaseDir).toAbsolutePath().normalize();
             Files.createDirectories(path.resolve("avatars"));
+            Files.createDirectories(path.resolve("review-photos"));
         } catch (Exception ignored) {}
     }
 
@@ -28,8 +31,15 @@ public class MediaConfig implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadPath = Paths.get(mediaBaseDir).toAbsolutePath().normalize();
         String resourceLocation = uploadPath.toUri().toString();
+        if (!resourceLocation.endsWith("/")) {
+            resourceLocation += "/";
+        }
+        // Las fotos de reseñas nunca se sobrescriben (el nombre lleva el id), se pueden cachear sin revalidar
+        registry.addResourceHandler("/media/review-photos/**")
+            .addResourceLocations(resourceLocation + "review-photos/")
+            .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
         registry.addResourceHandler("/media/**")
-            .addResourceLocations(resourceLocation.endsWith("/") ? resourceLocation : resourceLocation + "/");
+            .addResourceLocations(resourceLocation);
     }
 }
 
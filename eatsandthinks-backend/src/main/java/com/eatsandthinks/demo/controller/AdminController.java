@@ -3,15 +3,27 @@ package com.eatsandthinks.demo.controller;
 import com.eatsandthinks.demo.entity.LocalEntity;
 import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.ReviewSearchFilter;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.repository.projection.UserSummary;
+import com.eatsandthinks.demo.security.RateLimiter;
+import com.eatsandthinks.demo.service.DishIndexService;
+import com.eatsandthinks.demo.service.ReviewAdminService;
+import com.eatsandthinks.demo.service.ReviewAdminService.AdminReviewPage;
+import com.eatsandthinks.demo.service.ReviewImportService;
+import com.eatsandthinks.demo.service.ReviewImportService.ImportResult;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -19,10 +31,20 @@ public class AdminController {
 
     private final UserRepository userRepository;
     private final LocalRepository localRepository;
+    private final ReviewAdminService reviewAdminService;
+    private final ReviewImportService reviewImportService;
+    private final RateLimiter rateLimiter;
+    private final DishIndexService dishIndexService;
 
-    public AdminController(UserRepository userRepository, LocalRepository localRepository) {
+    public AdminController(UserRepository userRepository, LocalRepository localRepository,
+                           ReviewAdminService reviewAdminService, ReviewImportService reviewImportService,
+                           RateLimiter rateLimiter, DishIndexService dishIndexService) {
         this.userRepository = userRepository;
         this.localRepository = localRepository;
+        this.reviewAdminService = reviewAdminService;
+        this.reviewImportService = reviewImportService;
+        this.rateLimiter = rateLimiter;
+        this.dishIndexService = dishIndexService;
     }
 
     /**
@@ -73,23 +95,7 @@ public class AdminController {
     public ResponseEntity<?> getAllUsers(Authentication authentication) {
         try {
             validateAdmin(authentication);
-            List<User> users = userRepository.findAll();
-            
-            List<Map<String, Object>> usersData = users.stream()
-                .map(u -> {
-                    Map<String, Object> data = new HashMap<>();
-                    data.put("id", u.getId());
-                    data.put("nombre", u.getNombre());
-                    data.put("email", u.getEmail());
-                    data.put("role", u.getRole());
-                    data.put("banned", u.getBanned());
-                    data.put("canReview", u.getCanReview());
-                    data.put("createdAt", u.getCreatedAt());
-                    data.put("lastLoginAt", u.getLastLoginAt());
-                    data.put("profileImageUrl", u.getProfileImageUrl());
-                    return data;
-                })
-                .collect(Collectors.toList());
+            List<UserSummary> usersData = userRepository.findAllSummaries();
             
             return ResponseEntity.ok(usersData);
         } catch (RuntimeException e) {
@@ -351,23 +357,168 @@ public class AdminController {
         }
     }
 
+    /**
+     * GET /api/admin/rate-limits
+     * Límites de escritura configurados y peticiones rechazadas (429) por acción y rol
+     */
+    @GetMapping("/rate-limits")
+    public ResponseEntity<?> getRateLimits(Authentication authentication) {
+        try {
+            validateAdmin(authentication);
+            return ResponseEntity.ok(rateLimiter.snapshot());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/admin/dish-index/rebuild
+     * Reconstruye en segundo plano el índice de platos a partir de todas las reseñas
+     */
+    @PostMapping("/dish-index/rebuild")
+    public ResponseEntity<?> rebuildDishIndex(Authentication authentication) {
+        try {
+            validateAdmin(authentication);
+            dishIndexService.rebuild();
+            return ResponseEntity.accepted().body(Map.of("message", "Reconstrucción del índice iniciada"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/admin/reviews
-     * Obtiene todas las reseñas del sistema
+     * Buscador de reseñas con paginación por cursor (de la más reciente a la más antigua).
+     * Filtros opcionales: userId, placeId, from/to (yyyy-MM-dd), minRating, maxRating, q (texto en el comentario)
      */
     @GetMapping("/reviews")
-    public ResponseEntity<?> getAllReviews(Authentication authentication) {
+    public ResponseEntity<?> getAllReviews(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String placeId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) Integer maxRating,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
         try {
             validateAdmin(authentication);
-            // Por ahora retornamos lista vacía, implementar si necesitas
-            return ResponseEntity.ok(java.util.List.of());
         } catch (RuntimeException e) {
             return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        }
+        try {
+            Optional<ReviewSearchFilter> filter = buildReviewFilter(userId, placeId, from, to, minRating, maxRating, q);
+            if (filter.isEmpty()) {
+                return ResponseEntity.ok(new AdminReviewPage(List.of(), null));
+            }
+            int pageSize = Math.max(1, Math.min(limit, 200));
+            return ResponseEntity.ok(reviewAdminService.search(filter.get(), cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
+            System.err.println("❌ Error obteniendo reseñas: " + e.getMessage());
             return ResponseEntity.status(500).body(Map.of("message", "Error al obtener reseñas"));
         }
     }
 
+    /**
+     * GET /api/admin/reviews/export?format=ndjson|csv
+     * Exporta en streaming todas las reseñas que cumplen los mismos filtros que el buscador
+     */
+    @GetMapping("/reviews/export")
+    public ResponseEntity<?> exportReviews(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String placeId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(required = false) Integer maxRating,
+            @RequestParam(required = false) String q,
+            Authentication authentication) {
+        try {
+            validateAdmin(authentication);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Formato no soportado: " + format));
+        }
+        Optional<ReviewSearchFilter> filter;
+        try {
+            filter = buildReviewFilter(userId, placeId, from, to, minRating, maxRating, q);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        StreamingResponseBody body = out -> {
+            if (filter.isEmpty()) {
+                return;
+            }
+            if (csv) {
+                reviewAdminService.exportCsv(filter.get(), out);
+            } else {
+                reviewAdminService.exportNdjson(filter.get(), out);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(csv ? MediaType.parseMediaType("text/csv; charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resenas." + (csv ? "csv" : "ndjson") + "\"")
+            .body(body);
+    }
+
+    /**
+     * POST /api/admin/reviews/import?format=ndjson|csv
+     * Importación masiva de reseñas. El fichero va tal cual en el cuerpo de la petición
+     * (por ejemplo: curl --data-binary @resenas.ndjson) y se procesa en streaming
+     */
+    @PostMapping("/reviews/import")
+    public ResponseEntity<?> importReviews(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request,
+            Authentication authentication) {
+        try {
+            validateAdmin(authentication);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        }
+        try {
+            ImportResult result;
+            if ("csv".equalsIgnoreCase(format)) {
+                result = reviewImportService.importCsv(request.getInputStream());
+            } else if ("ndjson".equalsIgnoreCase(format)) {
+                result = reviewImportService.importNdjson(request.getInputStream());
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("message", "Formato no soportado: " + format));
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error importando reseñas: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al importar reseñas"));
+        }
+    }
+
+    /**
+     * Traduce los parámetros al filtro del buscador. Si se pide un placeId que no está
+     * en la BD no puede haber reseñas y se devuelve vacío.
+     */
+    private Optional<ReviewSearchFilter> buildReviewFilter(Long userId, String placeId, String from, String to,
+                                                           Integer minRating, Integer maxRating, String q) {
+        Long localId = null;
+        if (placeId != null && !placeId.isBlank()) {
+            Optional<LocalEntity> local = localRepository.findByPlaceId(placeId.trim());
+            if (local.isEmpty()) {
+                return Optional.empty();
+            }
+            localId = local.get().getId();
+        }
+        return Optional.of(ReviewSearchFilter.of(userId, localId, from, to, minRating, maxRating, q));
+    }
+
     @DeleteMapping("/locals/{localId}")
     public ResponseEntity<?> deleteCommunityLocal(@PathVariable Long localId, Authentication authentication) {
         try {
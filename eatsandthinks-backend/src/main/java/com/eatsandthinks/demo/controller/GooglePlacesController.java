@@ -2,12 +2,17 @@ package com.eatsandthinks.demo.controller;
 
 import com.eatsandthinks.demo.service.GooglePlacesService;
 import com.eatsandthinks.demo.service.GooglePlacesService.PlaceDetails;
+import com.eatsandthinks.demo.service.RankingService;
+import com.eatsandthinks.demo.service.RankingService.RankFeatures;
+import com.eatsandthinks.demo.service.RankingService.RankingContext;
+import com.eatsandthinks.demo.util.CuisineIndex;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -16,23 +21,30 @@ import java.util.stream.Stream;
 public class GooglePlacesController {
 
     private final GooglePlacesService googlePlacesService;
+    private final RankingService rankingService;
 
-    public GooglePlacesController(GooglePlacesService googlePlacesService) {
+    public GooglePlacesController(GooglePlacesService googlePlacesService, RankingService rankingService) {
         this.googlePlacesService = googlePlacesService;
+        this.rankingService = rankingService;
     }
 
     /**
      * Endpoint para buscar locales usando Google Places API y aplicar filtros opcionales.
+     * Los resultados se ordenan con RankingService (rank=false conserva el orden de Google).
      */
     @GetMapping("/search")
-    public ResponseEntity<List<GooglePlacesService.GooglePlace>> searchPlaces(
+    public ResponseEntity<?> searchPlaces(
             @RequestParam String query,
             @RequestParam(required = false) Float minRating,
             @RequestParam(required = false) List<Integer> priceLevel, // Cambiar a List para múltiples valores
             @RequestParam(required = false) Boolean openNow,
             @RequestParam(required = false) Boolean openNowOnly,
             @RequestParam(required = false) Integer limit,
-            @RequestParam(required = false) String cuisineTypes) {
+            @RequestParam(required = false) String cuisineTypes,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "true") boolean rank,
+            @RequestParam(defaultValue = "false") boolean debug) {
 
         System.out.println("🔍 Búsqueda: " + query + " (Madrid)");
         System.out.println("🎯 Filtros aplicados - Rating: " + minRating + ", PriceLevels: " + priceLevel + ", OpenNowOnly: " + openNowOnly + ", CuisineTypes: " + cuisineTypes);
@@ -73,30 +85,27 @@ public class GooglePlacesController {
 
         // Filtrar por Tipos de Cocina
         if (cuisineTypes != null && !cuisineTypes.isEmpty()) {
-            List<String> selectedCuisines = Arrays.asList(cuisineTypes.split(","));
-            System.out.println("   - Aplicando filtro: Tipos de Cocina = " + selectedCuisines);
-            
-            filteredStream = filteredStream.filter(place -> {
-                if (place.getType() == null) return false;
-                
-                String placeType = place.getType().toLowerCase();
-                return selectedCuisines.stream().anyMatch(cuisine -> {
-                    String cuisineLower = cuisine.toLowerCase();
-                    // Buscar coincidencias parciales en el tipo del lugar
-                    return placeType.contains(cuisineLower) || 
-                           cuisineLower.contains(placeType) ||
-                           hasCuisineMatch(placeType, cuisineLower);
-                });
-            });
+            Predicate<String> cuisineFilter = CuisineIndex.compile(cuisineTypes);
+            System.out.println("   - Aplicando filtro: Tipos de Cocina = " + cuisineTypes);
+            filteredStream = filteredStream.filter(place -> cuisineFilter.test(place.getType()));
+        }
+
+        // 3. Ordenar por puntuación y quedarse con los K mejores
+        int k = limit != null && limit > 0 ? limit : 0;
+        if (rank) {
+            List<GooglePlacesService.GooglePlace> candidates = filteredStream.collect(Collectors.toList());
+            RankingContext context = new RankingContext(lat, lng, debug);
+            List<?> ranked = rankingService.rankForResponse(candidates, RankFeatures::of, context, k);
+            System.out.println("✅ Resultados filtrados y ordenados: " + ranked.size());
+            return ResponseEntity.ok(ranked);
         }
 
         // Aplicar Límite de Resultados
-        if (limit != null && limit > 0) {
-            filteredStream = filteredStream.limit(limit);
-            System.out.println("   - Aplicando filtro: Límite = " + limit);
+        if (k > 0) {
+            filteredStream = filteredStream.limit(k);
+            System.out.println("   - Aplicando filtro: Límite = " + k);
         }
 
-        // 3. Recolectar la lista filtrada
         List<GooglePlacesService.GooglePlace> filteredResults = filteredStream.collect(Collectors.toList());
 
         System.out.println("✅ Resultados filtrados: " + filteredResults.size());
@@ -133,33 +142,6 @@ public class GooglePlacesController {
         }
     }
 
-    /**
-     * Método auxiliar para verificar coincidencias entre tipos de cocina
-     */
-    private boolean hasCuisineMatch(String placeType, String cuisine) {
-        // Mapeo de tipos comunes para mejor matching
-        Map<String, List<String>> cuisineMapping = new HashMap<>();
-        cuisineMapping.put("restaurant", Arrays.asList("restaurante", "comida", "food"));
-        cuisineMapping.put("cafe", Arrays.asList("café", "cafe", "coffee"));
-        cuisineMapping.put("bar", Arrays.asList("bar", "pub", "cervecería"));
-        cuisineMapping.put("pizza", Arrays.asList("pizzeria", "pizza", "italian"));
-        cuisineMapping.put("asian", Arrays.asList("asiatico", "asiático", "chino", "japonés", "sushi", "thai"));
-        cuisineMapping.put("mexican", Arrays.asList("mexicano", "mexican", "taco", "burrito"));
-        cuisineMapping.put("italian", Arrays.asList("italiano", "italian", "pasta", "ristorante"));
-        
-        // Verificar si el tipo del lugar coincide con alguna variante de la cocina buscada
-        for (Map.Entry<String, List<String>> entry : cuisineMapping.entrySet()) {
-            if (entry.getValue().contains(cuisine) && placeType.contains(entry.getKey())) {
-                return true;
-            }
-            if (entry.getValue().contains(placeType) && cuisine.contains(entry.getKey())) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-
     @GetMapping("/test")
     public String test() {
         return "✅ Google Places API funcionando";
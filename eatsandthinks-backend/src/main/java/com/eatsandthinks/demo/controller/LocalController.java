@@ -1,18 +1,37 @@
 package com.eatsandthinks.demo.controller;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.eatsandthinks.demo.entity.LocalEntity;
 import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.LocalSearchFilter;
+import com.eatsandthinks.demo.repository.LocalSpecifications;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+import com.eatsandthinks.demo.service.DishIndexService;
 import com.eatsandthinks.demo.service.GooglePlacesService;
+import com.eatsandthinks.demo.service.LocalExportService;
+import com.eatsandthinks.demo.service.PlaceSummaryService;
+import com.eatsandthinks.demo.service.PlaceSummaryService.PlaceSummaryDTO;
+import com.eatsandthinks.demo.service.RankingService;
+import com.eatsandthinks.demo.service.RankingService.RankFeatures;
+import com.eatsandthinks.demo.service.RankingService.RankingContext;
+import com.eatsandthinks.demo.service.TrendingService;
 import com.eatsandthinks.demo.service.GooglePlacesService.GooglePlace;
 import com.eatsandthinks.demo.service.GooglePlacesService.PlaceDetails;
+import com.eatsandthinks.demo.util.CuisineIndex;
 
 @RestController
 @RequestMapping("/api/locales")
@@ -24,6 +43,23 @@ public class LocalController {
     @Autowired
     private LocalRepository localRepository;
 
+    @Autowired
+    private LocalExportService localExportService;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private PlaceSummaryService placeSummaryService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private DishIndexService dishIndexService;
+
+    private static final int MAX_SUMMARY_IDS = 100;
+
     /**
      * Endpoint de búsqueda con filtros (limitado a Madrid)
      */
@@ -34,7 +70,12 @@ public class LocalController {
             @RequestParam(required = false) List<Integer> priceLevel, // Cambiar a List
             @RequestParam(required = false) Boolean openNow,
             @RequestParam(required = false) Boolean openNowOnly,
-            @RequestParam(required = false) String cuisineTypes) {
+            @RequestParam(required = false) String cuisineTypes,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "true") boolean rank,
+            @RequestParam(defaultValue = "false") boolean debug) {
         try {
             System.out.println("🔍 Búsqueda: " + query + " (Madrid)");
             
@@ -66,12 +107,19 @@ public class LocalController {
             }
 
             // Aplicar filtros
+            Predicate<String> cuisineFilter = CuisineIndex.compile(cuisineTypes);
             List<GooglePlace> filtered = results.stream()
                 .filter(p -> minRating == null || (p.getRating() != null && p.getRating() >= minRating))
                 .filter(p -> priceLevel == null || priceLevel.isEmpty() || (p.getPriceLevel() != null && priceLevel.contains(p.getPriceLevel())))
                 .filter(p -> openNowOnly == null || !openNowOnly || (p.getOpenNow() != null && p.getOpenNow()))
+                .filter(p -> cuisineTypes == null || cuisineTypes.isBlank() || cuisineFilter.test(p.getType()))
                 .collect(Collectors.toList());
 
+            if (rank) {
+                RankingContext context = new RankingContext(lat, lng, debug);
+                int k = limit != null && limit > 0 ? limit : 0;
+                return ResponseEntity.ok(rankingService.rankForResponse(filtered, RankFeatures::of, context, k));
+            }
             return ResponseEntity.ok(filtered);
             
         } catch (Exception e) {
@@ -84,34 +132,126 @@ public class LocalController {
     }
 
     /**
-     * Obtiene todos los locales guardados en la BD
+     * Obtiene los locales guardados en la BD.
+     * Los filtros opcionales se resuelven en SQL (ver LocalSpecifications), no en memoria.
      */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllLocales() {
+    public ResponseEntity<List<LocalSummary>> getAllLocales(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) List<Integer> priceLevel,
+            @RequestParam(required = false) Boolean openNowOnly,
+            @RequestParam(required = false) String cuisineTypes,
+            @RequestParam(defaultValue = "200") int limit) {
         try {
-            List<LocalEntity> locales = localRepository.findAll();
-            List<Map<String, Object>> response = locales.stream()
-                .map(this::entityToMap)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            LocalSearchFilter filter = LocalSearchFilter.of(query, minRating, priceLevel, openNowOnly, cuisineTypes);
+            if (filter.isEmpty()) {
+                return ResponseEntity.ok(localRepository.findAllSummaries());
+            }
+            int boundedLimit = Math.max(1, Math.min(limit, 1000));
+            return ResponseEntity.ok(localRepository.searchSummaries(LocalSpecifications.matching(filter), boundedLimit));
         } catch (Exception e) {
             System.err.println("❌ Error obteniendo locales: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
         }
     }
 
+    /**
+     * GET /api/locales/export
+     * Exporta el catálogo completo de locales en NDJSON (una línea por local).
+     * Con gzip=true la respuesta se comprime al vuelo.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLocales(
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+                    localExportService.exportNdjson(gzipOut);
+                }
+            } else {
+                localExportService.exportNdjson(out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"locales.ndjson" + (gzip ? ".gz" : "") + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * GET /api/locales/summaries?placeIds=a,b,c
+     * Estadísticas agregadas (reseñas, media, favoritos, respuestas) de varios locales en una sola llamada
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getSummaries(@RequestParam List<String> placeIds) {
+        List<String> ids = placeIds.stream()
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .distinct()
+            .toList();
+        if (ids.size() > MAX_SUMMARY_IDS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "Máximo " + MAX_SUMMARY_IDS + " locales por petición"));
+        }
+        try {
+            Map<String, PlaceSummaryDTO> found = placeSummaryService.getSummaries(ids);
+            Map<String, PlaceSummaryDTO> body = new LinkedHashMap<>();
+            for (String id : ids) {
+                body.put(id, found.getOrDefault(id, PlaceSummaryDTO.empty(id)));
+            }
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            System.err.println("❌ Error obteniendo resúmenes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error al obtener los resúmenes"));
+        }
+    }
+
+    /**
+     * GET /api/locales/trending?limit=10
+     * Locales con más actividad (reseñas, favoritos, visitas) en los últimos 7 días
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(trendingService.getTrending(Math.max(1, Math.min(limit, 50))));
+        } catch (Exception e) {
+            System.err.println("❌ Error obteniendo tendencias: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error al obtener tendencias"));
+        }
+    }
+
+    /**
+     * GET /api/locales/by-dish?q=croquetas&limit=20
+     * Locales cuyas reseñas mencionan el plato, por número de menciones y valoración
+     */
+    @GetMapping("/by-dish")
+    public ResponseEntity<?> searchByDish(@RequestParam String q,
+                                          @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(dishIndexService.search(q, Math.max(1, Math.min(limit, 50))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error buscando por plato: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Error al buscar por plato"));
+        }
+    }
+
     /**
      * GET /api/locales/community
      * Obtiene solo los locales creados por administradores
      */
     @GetMapping("/community")
-    public ResponseEntity<List<Map<String, Object>>> getCommunityLocales() {
+    public ResponseEntity<List<LocalSummary>> getCommunityLocales() {
         try {
-            List<LocalEntity> communityLocales = localRepository.findBySource(LocalEntity.Source.LOCAL);
-            List<Map<String, Object>> response = communityLocales.stream()
-                .map(this::entityToMap)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(localRepository.findSummariesBySource(LocalEntity.Source.LOCAL));
         } catch (Exception e) {
             System.err.println("❌ Error obteniendo locales de comunidad: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
@@ -124,7 +264,7 @@ public class LocalController {
      */
     
     @GetMapping("/details/{placeId}")
-    public ResponseEntity<?> getLocalDetails(@PathVariable String placeId) {
+    public ResponseEntity<?> getLocalDetails(@PathVariable String placeId, Authentication authentication) {
         try {
             System.out.println("📍 Obteniendo detalles de: " + placeId);
             
@@ -137,7 +277,7 @@ public class LocalController {
             if (details == null) {
                 // Si no hay detalles de Google, devolver lo que tengamos en BD
                 if (localOpt.isPresent()) {
-                    return ResponseEntity.ok(entityToMap(localOpt.get()));
+                    return ResponseEntity.ok(LocalSummary.of(localOpt.get()));
                 }
                 
                 Map<String, String> error = new HashMap<>();
@@ -168,6 +308,10 @@ public class LocalController {
             local.setAbierto(details.openNow);
             
             localRepository.save(local);
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                trendingService.onDetailsViewed(placeId, authentication.getName());
+            }
             
             // Crear respuesta con detalles completos
             Map<String, Object> response = new HashMap<>();
@@ -202,24 +346,4 @@ public class LocalController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-
-    /**
-     * Convierte LocalEntity a Map para la respuesta JSON
-     */
-    private Map<String, Object> entityToMap(LocalEntity entity) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", entity.getId());
-        map.put("placeId", entity.getPlaceId());
-        map.put("name", entity.getNombre());
-        map.put("formattedAddress", entity.getDireccion());
-        map.put("lat", entity.getLatitud());
-        map.put("lng", entity.getLongitud());
-        map.put("rating", entity.getRating());
-        map.put("userRatingsTotal", entity.getTotalValoraciones());
-        map.put("priceLevel", entity.getPrecioNivel());
-        map.put("photoRef", entity.getFotoRef());
-        map.put("type", entity.getTipo());
-        map.put("openNow", entity.getAbierto());
-        return map;
-    }
 }
\ No newline at end of file
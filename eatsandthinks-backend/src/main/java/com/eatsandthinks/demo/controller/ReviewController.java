@@ -2,9 +2,13 @@ package com.eatsandthinks.demo.controller;
 
 import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.service.HelpfulVoteService;
+import com.eatsandthinks.demo.service.HelpfulVoteService.HelpfulVoteResult;
 import com.eatsandthinks.demo.service.ReviewService;
 import com.eatsandthinks.demo.service.ReviewService.ReviewCreationDTO;
 import com.eatsandthinks.demo.service.ReviewService.ReviewDTO;
+import com.eatsandthinks.demo.service.ReviewService.ReviewPage;
+import com.eatsandthinks.demo.service.ReviewService.ReviewSort;
 import com.eatsandthinks.demo.service.ReviewService.ReviewUpdateDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -16,12 +20,18 @@ import java.util.Map;
 @RequestMapping("/api")
 public class ReviewController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewService reviewService;
     private final UserRepository userRepository;
+    private final HelpfulVoteService helpfulVoteService;
 
-    public ReviewController(ReviewService reviewService, UserRepository userRepository) {
+    public ReviewController(ReviewService reviewService, UserRepository userRepository,
+                            HelpfulVoteService helpfulVoteService) {
         this.reviewService = reviewService;
         this.userRepository = userRepository;
+        this.helpfulVoteService = helpfulVoteService;
     }
 
     /**
@@ -67,13 +77,25 @@ public class ReviewController {
     }
     /**
      * GET /api/locales/{placeId}/reviews
-     * Obtiene todas las reseñas de un local
+     * Obtiene las reseñas de un local. Sin limit ni cursor devuelve la lista completa (compatibilidad);
+     * con ellos devuelve una página { items, nextCursor } ordenada por sort = newest | highest | lowest | helpful
      */
     @GetMapping("/locales/{placeId}/reviews")
-    public ResponseEntity<?> getReviewsByLocal(@PathVariable String placeId) {
+    public ResponseEntity<?> getReviewsByLocal(
+            @PathVariable String placeId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<ReviewDTO> reviews = reviewService.getReviewsByLocalPlaceId(placeId);
-            return ResponseEntity.ok(reviews);
+            if (limit == null && cursor == null && sort == null) {
+                List<ReviewDTO> reviews = reviewService.getReviewsByLocalPlaceId(placeId);
+                return ResponseEntity.ok(reviews);
+            }
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            ReviewPage page = reviewService.getReviewPage(placeId, ReviewSort.from(sort), cursor, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             System.err.println("❌ Error obteniendo reseñas: " + e.getMessage());
             return ResponseEntity.status(500).body(Map.of("message", "Error al obtener reseñas"));
@@ -128,4 +150,50 @@ public class ReviewController {
             return ResponseEntity.status(500).body(Map.of("message", "Error al eliminar reseña"));
         }
     }
-}
\ No newline at end of file
+    /**
+     * POST /api/reviews/{reviewId}/helpful
+     * Marca una reseña como útil (un voto por usuario)
+     */
+    @PostMapping("/reviews/{reviewId}/helpful")
+    public ResponseEntity<?> voteHelpful(
+            @PathVariable Long reviewId,
+            Authentication authentication) {
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return ResponseEntity.status(401).body(Map.of("message", "Debes iniciar sesión"));
+            }
+            User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            HelpfulVoteResult result = helpfulVoteService.vote(reviewId, user.getId());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error votando reseña: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al votar la reseña"));
+        }
+    }
+    /**
+     * DELETE /api/reviews/{reviewId}/helpful
+     * Retira el voto de útil del usuario
+     */
+    @DeleteMapping("/reviews/{reviewId}/helpful")
+    public ResponseEntity<?> unvoteHelpful(
+            @PathVariable Long reviewId,
+            Authentication authentication) {
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return ResponseEntity.status(401).body(Map.of("message", "Debes iniciar sesión"));
+            }
+            User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            HelpfulVoteResult result = helpfulVoteService.unvote(reviewId, user.getId());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error retirando voto: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al retirar el voto"));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.eatsandthinks.demo.controller;
+
+import com.eatsandthinks.demo.entity.User;
+import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.service.ReviewPhotoService;
+import com.eatsandthinks.demo.service.ReviewPhotoService.OffsetMismatchException;
+import com.eatsandthinks.demo.service.ReviewPhotoService.PhotoUploadStatus;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Subida reanudable de fotos de reseñas:
+ * 1. POST /api/reviews/{reviewId}/photos con { contentType, size } abre la subida.
+ * 2. PATCH /api/reviews/photos/{photoId} con cabecera Upload-Offset y el fragmento
+ *    como application/octet-stream (se puede enviar todo de una vez o en trozos).
+ * 3. GET/HEAD /api/reviews/photos/{photoId} devuelve el estado y el offset para reanudar.
+ */
+@RestController
+@RequestMapping("/api/reviews")
+public class ReviewPhotoController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final ReviewPhotoService reviewPhotoService;
+    private final UserRepository userRepository;
+
+    public ReviewPhotoController(ReviewPhotoService reviewPhotoService, UserRepository userRepository) {
+        this.reviewPhotoService = reviewPhotoService;
+        this.userRepository = userRepository;
+    }
+
+    @PostMapping("/{reviewId}/photos")
+    public ResponseEntity<?> startUpload(
+            @PathVariable Long reviewId,
+            @RequestBody StartPhotoUploadDTO dto,
+            Authentication authentication) {
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return ResponseEntity.status(401).body(Map.of("message", "Debes iniciar sesión"));
+            }
+            User user = currentUser(authentication);
+            PhotoUploadStatus status = reviewPhotoService.startUpload(
+                reviewId, user.getId(), dto.contentType(), dto.size() != null ? dto.size() : 0);
+            return ResponseEntity.status(201)
+                .header(UPLOAD_OFFSET, "0")
+                .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error iniciando subida de foto: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al iniciar la subida"));
+        }
+    }
+
+    @PatchMapping(value = "/photos/{photoId}", consumes = "application/octet-stream")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable Long photoId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            Authentication authentication) {
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return ResponseEntity.status(401).body(Map.of("message", "Debes iniciar sesión"));
+            }
+            User user = currentUser(authentication);
+            String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+            PhotoUploadStatus status = reviewPhotoService.appendChunk(
+                photoId, user.getId(), offset, request.getInputStream(), baseUrl);
+            return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(status.receivedBytes()))
+                .body(status);
+        } catch (OffsetMismatchException e) {
+            return ResponseEntity.status(409)
+                .header(UPLOAD_OFFSET, String.valueOf(e.getExpectedOffset()))
+                .body(Map.of("message", e.getMessage(), "expectedOffset", e.getExpectedOffset()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            // Normalmente el cliente cortó la conexión: lo recibido queda guardado para reanudar
+            System.err.println("⚠️ Fragmento interrumpido para la foto " + photoId + ": " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Subida interrumpida, consulta el estado y reanuda"));
+        } catch (Exception e) {
+            System.err.println("❌ Error subiendo fragmento: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al subir la foto"));
+        }
+    }
+
+    @GetMapping("/photos/{photoId}")
+    public ResponseEntity<?> getUploadStatus(
+            @PathVariable Long photoId,
+            Authentication authentication) {
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                return ResponseEntity.status(401).body(Map.of("message", "Debes iniciar sesión"));
+            }
+            User user = currentUser(authentication);
+            PhotoUploadStatus status = reviewPhotoService.getStatus(photoId, user.getId());
+            return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(status.receivedBytes()))
+                .header("Cache-Control", "no-store")
+                .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("❌ Error consultando subida: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al consultar la subida"));
+        }
+    }
+
+    private User currentUser(Authentication authentication) {
+        return userRepository.findByEmail(authentication.getName())
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    }
+
+    public record StartPhotoUploadDTO(String contentType, Long size) {}
+}
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.eatsandthinks.demo.entity.User;
@@ -20,6 +21,11 @@ import com.eatsandthinks.demo.service.ReviewReplyService;
 @RequestMapping("/api/reviews")
 public class ReviewReplyController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_THREAD_PREVIEW = 3;
+    private static final int MAX_THREADS = 50;
+
     private final ReviewReplyService reviewReplyService;
     private final UserRepository userRepository;
 
@@ -62,11 +68,45 @@ public class ReviewReplyController {
 
     /**
      * GET /api/reviews/{reviewId}/replies
+     * Sin limit ni cursor devuelve el hilo completo (compatibilidad);
+     * con ellos devuelve una página { items, nextCursor } en orden de llegada
      */
     @GetMapping("/{reviewId}/replies")
-    public ResponseEntity<List<ReviewReplyService.ReplyDTO>> getReplies(@PathVariable Long reviewId) {
-        List<ReviewReplyService.ReplyDTO> replies = reviewReplyService.getReplies(reviewId);
-        return ResponseEntity.ok(replies);
+    public ResponseEntity<?> getReplies(@PathVariable Long reviewId,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        try {
+            if (cursor == null && limit == null) {
+                List<ReviewReplyService.ReplyDTO> replies = reviewReplyService.getReplies(reviewId);
+                return ResponseEntity.ok(replies);
+            }
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(reviewReplyService.getReplyPage(reviewId, cursor, pageSize));
+        } catch (Exception e) {
+            System.err.println("❌ Error obteniendo respuestas: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al obtener respuestas"));
+        }
+    }
+
+    /**
+     * GET /api/reviews/replies?reviewIds=1,2,3&limit=3
+     * Primera página de varios hilos en una sola llamada: { reviewId: { items, nextCursor } }
+     */
+    @GetMapping("/replies")
+    public ResponseEntity<?> getThreads(@RequestParam List<Long> reviewIds,
+                                        @RequestParam(required = false) Integer limit) {
+        List<Long> ids = reviewIds.stream().distinct().toList();
+        if (ids.size() > MAX_THREADS) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "Máximo " + MAX_THREADS + " reseñas por petición"));
+        }
+        try {
+            int pageSize = Math.max(1, Math.min(limit != null ? limit : DEFAULT_THREAD_PREVIEW, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(reviewReplyService.getFirstPages(ids, pageSize));
+        } catch (Exception e) {
+            System.err.println("❌ Error obteniendo hilos: " + e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("message", "Error al obtener respuestas"));
+        }
     }
 
     public record ReplyRequest(String content) {}
@@ -3,16 +3,20 @@ package com.eatsandthinks.demo.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.service.NotificationStreamService;
 import com.eatsandthinks.demo.service.ReviewReplyNotificationService;
 
 @RestController
@@ -20,14 +24,45 @@ import com.eatsandthinks.demo.service.ReviewReplyNotificationService;
 public class ReviewReplyNotificationController {
 
     private final ReviewReplyNotificationService notificationService;
+    private final NotificationStreamService streamService;
     private final UserRepository userRepository;
 
     public ReviewReplyNotificationController(ReviewReplyNotificationService notificationService,
+                                             NotificationStreamService streamService,
                                              UserRepository userRepository) {
         this.notificationService = notificationService;
+        this.streamService = streamService;
         this.userRepository = userRepository;
     }
 
+    /**
+     * GET /api/notifications/review-replies/stream
+     * Canal SSE: evento "unread" al conectar, "reply-notification" por cada respuesta nueva
+     * y "resync" cuando el cliente debe recargar el listado. Sustituye al sondeo periódico.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                             Authentication authentication) {
+        User user = requireUser(authentication);
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        Long lastId = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                lastId = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException ignored) {
+                // Id desconocido: se trata como conexión nueva
+            }
+        }
+        long unread = notificationService.getUnreadCount(user.getId());
+        SseEmitter emitter = streamService.subscribe(user.getId(), lastId, unread);
+        return ResponseEntity.ok()
+            // Evita que nginx/proxies acumulen el stream en buffer
+            .header("X-Accel-Buffering", "no")
+            .body(emitter);
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<?> getUnreadCount(Authentication authentication) {
         User user = requireUser(authentication);
@@ -55,8 +90,8 @@ public class ReviewReplyNotificationController {
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "No autenticado"));
         }
-        notificationService.markAsRead(user.getId(), request.notificationIds(), request.markAll());
-        return ResponseEntity.ok(Map.of("message", "Notificaciones actualizadas"));
+        int updated = notificationService.markAsRead(user.getId(), request.notificationIds(), request.markAll());
+        return ResponseEntity.ok(Map.of("message", "Notificaciones actualizadas", "updated", updated));
     }
 
     private User requireUser(Authentication authentication) {
@@ -2,7 +2,10 @@ package com.eatsandthinks.demo.controller;
 
 import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.service.AuthorSnapshotService;
 import com.eatsandthinks.demo.service.ReviewService;
+import com.eatsandthinks.demo.service.UserStatsService;
+import com.eatsandthinks.demo.service.UserStatsService.UserStatsDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,15 +31,21 @@ public class UserController {
     private final UserRepository userRepository;
     private final ReviewService reviewService;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorSnapshotService authorSnapshotService;
+    private final UserStatsService userStatsService;
     @Value("${app.media.base-dir:uploads}")
     private String mediaBaseDir;
 
     public UserController(UserRepository userRepository, 
                          ReviewService reviewService,
-                         PasswordEncoder passwordEncoder) {
+                         PasswordEncoder passwordEncoder,
+                         AuthorSnapshotService authorSnapshotService,
+                         UserStatsService userStatsService) {
         this.userRepository = userRepository;
         this.reviewService = reviewService;
         this.passwordEncoder = passwordEncoder;
+        this.authorSnapshotService = authorSnapshotService;
+        this.userStatsService = userStatsService;
     }
 
     /**
@@ -52,10 +61,8 @@ public class UserController {
             String email = authentication.getName();
             User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            // Obtener estadísticas del usuario
-            List<ReviewService.ReviewDTO> userReviews = reviewService.getReviewsByUserId(user.getId());
-            double avgRating = userReviews.isEmpty() ? 0.0 : 
-                userReviews.stream().mapToInt(ReviewService.ReviewDTO::puntuacion).average().orElse(0.0);
+            // Estadísticas precalculadas (una fila de user_stats)
+            UserStatsDTO stats = userStatsService.getStats(user.getId());
             Map<String, Object> response = new HashMap<>();
             // Limpiar el rol (quitar prefijo ROLE_ si existe)
             String cleanRole = user.getRole().replace("ROLE_", "");
@@ -65,8 +72,10 @@ public class UserController {
             response.put("email", user.getEmail());
             response.put("role", cleanRole);
             response.put("createdAt", user.getCreatedAt());
-            response.put("totalReviews", userReviews.size());
-            response.put("avgRating", avgRating);
+            response.put("totalReviews", stats.totalReviews());
+            response.put("avgRating", stats.avgRating());
+            response.put("favoritesCount", stats.favoritesCount());
+            response.put("repliesReceived", stats.repliesReceived());
             response.put("lastLoginAt", user.getLastLoginAt());
             response.put("profileImageUrl", user.getProfileImageUrl());
             return ResponseEntity.ok(response);
@@ -132,9 +141,11 @@ public ResponseEntity<?> updateCurrentUser(
             .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
         boolean emailChanged = false;
+        boolean nameChanged = false;
         
         // Actualizar nombre si se proporciona
         if (dto.nombre() != null && !dto.nombre().isBlank()) {
+            nameChanged = !dto.nombre().equals(user.getNombre());
             user.setNombre(dto.nombre());
         }
         
@@ -157,6 +168,9 @@ public ResponseEntity<?> updateCurrentUser(
         }
         
         User updatedUser = userRepository.save(user);
+        if (nameChanged) {
+            authorSnapshotService.refreshAuthor(updatedUser.getId());
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("id", updatedUser.getId());
@@ -232,6 +246,7 @@ public ResponseEntity<?> updateCurrentUser(
 
             user.setProfileImageUrl(publicUrl);
             userRepository.save(user);
+            authorSnapshotService.refreshAuthor(user.getId());
 
             return ResponseEntity.ok(Map.of("profileImageUrl", publicUrl));
         } catch (Exception e) {
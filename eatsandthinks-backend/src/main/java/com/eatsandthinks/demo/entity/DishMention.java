@@ -0,0 +1,35 @@
+package com.eatsandthinks.demo.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entrada del índice invertido de platos: cuántas reseñas de un local mencionan un término.
+ * Lo mantiene DishIndexService al escribir reseñas.
+ */
+@Entity
+@Table(name = "dish_mentions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_dish_mentions_term_local", columnNames = {"term", "local_id"}),
+       indexes = @Index(name = "idx_dish_mentions_term_count", columnList = "term, mention_count"))
+public class DishMention {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String term;
+
+    @Column(name = "local_id", nullable = false)
+    private Long localId;
+
+    @Column(name = "mention_count", nullable = false)
+    private int mentionCount;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTerm() { return term; }
+    public void setTerm(String term) { this.term = term; }
+    public Long getLocalId() { return localId; }
+    public void setLocalId(Long localId) { this.localId = localId; }
+    public int getMentionCount() { return mentionCount; }
+    public void setMentionCount(int mentionCount) { this.mentionCount = mentionCount; }
+}
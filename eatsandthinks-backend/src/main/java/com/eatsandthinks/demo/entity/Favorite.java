@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "favoritos", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "local_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "local_id"}),
+       indexes = @Index(name = "idx_favoritos_local", columnList = "local_id"))
 public class Favorite {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
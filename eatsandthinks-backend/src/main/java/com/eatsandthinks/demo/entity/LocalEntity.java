@@ -9,11 +9,18 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "locales")
+@Table(name = "locales", indexes = {
+	@Index(name = "idx_locales_rating", columnList = "rating"),
+	@Index(name = "idx_locales_precio_rating", columnList = "precio_nivel, rating"),
+	@Index(name = "idx_locales_abierto_rating", columnList = "abierto, rating"),
+	@Index(name = "idx_locales_tipo_rating", columnList = "tipo, rating"),
+	@Index(name = "idx_locales_source", columnList = "source")
+})
 public class LocalEntity {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
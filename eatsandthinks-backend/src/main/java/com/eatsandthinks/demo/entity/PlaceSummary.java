@@ -0,0 +1,155 @@
+package com.eatsandthinks.demo.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Modelo de lectura desnormalizado con las estadísticas de la tarjeta de un local.
+ * Lo mantienen las rutas de escritura de reseñas, respuestas y favoritos
+ * (ver PlaceSummaryService); nunca se guarda con save().
+ */
+@Entity
+@Table(name = "place_summary", indexes = {
+    @Index(name = "idx_place_summary_place_id", columnList = "place_id", unique = true)
+})
+public class PlaceSummary {
+
+    @Id
+    @Column(name = "local_id")
+    private Long localId;
+
+    @Column(name = "place_id")
+    private String placeId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    // Histograma de puntuaciones: número de reseñas con 1..5 estrellas
+    @Column(name = "star_1", nullable = false)
+    private long star1;
+
+    @Column(name = "star_2", nullable = false)
+    private long star2;
+
+    @Column(name = "star_3", nullable = false)
+    private long star3;
+
+    @Column(name = "star_4", nullable = false)
+    private long star4;
+
+    @Column(name = "star_5", nullable = false)
+    private long star5;
+
+    @Column(name = "favorite_count", nullable = false)
+    private long favoriteCount;
+
+    @Column(name = "reply_count", nullable = false)
+    private long replyCount;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    public Long getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(Long localId) {
+        this.localId = localId;
+    }
+
+    public String getPlaceId() {
+        return placeId;
+    }
+
+    public void setPlaceId(String placeId) {
+        this.placeId = placeId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public long getStar1() {
+        return star1;
+    }
+
+    public void setStar1(long star1) {
+        this.star1 = star1;
+    }
+
+    public long getStar2() {
+        return star2;
+    }
+
+    public void setStar2(long star2) {
+        this.star2 = star2;
+    }
+
+    public long getStar3() {
+        return star3;
+    }
+
+    public void setStar3(long star3) {
+        this.star3 = star3;
+    }
+
+    public long getStar4() {
+        return star4;
+    }
+
+    public void setStar4(long star4) {
+        this.star4 = star4;
+    }
+
+    public long getStar5() {
+        return star5;
+    }
+
+    public void setStar5(long star5) {
+        this.star5 = star5;
+    }
+
+    public long getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    public void setFavoriteCount(long favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
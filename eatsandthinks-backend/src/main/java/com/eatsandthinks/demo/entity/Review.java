@@ -7,11 +7,21 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "resenas")
+@Table(name = "resenas", indexes = {
+	@Index(name = "idx_resenas_local_fecha", columnList = "local_id, fecha"),
+	@Index(name = "idx_resenas_local_puntuacion_fecha", columnList = "local_id, puntuacion, fecha"),
+	// LOWEST: puntuación ascendente y, dentro de cada puntuación, las más recientes primero
+	@Index(name = "idx_resenas_local_puntuacion_asc_fecha_desc", columnList = "local_id, puntuacion ASC, fecha DESC, id DESC"),
+	@Index(name = "idx_resenas_local_helpful_fecha", columnList = "local_id, helpful_count, fecha"),
+	@Index(name = "idx_resenas_user", columnList = "user_id"),
+	@Index(name = "idx_resenas_fecha", columnList = "fecha"),
+	@Index(name = "idx_resenas_puntuacion", columnList = "puntuacion")
+})
 public class Review {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +36,22 @@ public class Review {
 
 	private LocalDateTime fecha = LocalDateTime.now();
 
+	// Votos de "útil"; solo lo escribe HelpfulVoteService por lotes (updatable = false
+	// para que guardar la reseña no pise un volcado concurrente)
+	@Column(name = "helpful_count", nullable = false, updatable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+	private int helpfulCount;
+
+	// Respuestas de la reseña; se mantiene con un UPDATE atómico al responder y lo corrige
+	// ReplyCountReconciler. updatable = false por el mismo motivo que helpfulCount
+	@Column(name = "reply_count", nullable = false, updatable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+	private int replyCount;
+
+	// Copia del autor al escribir, para no consultar usuarios al leer (ver AuthorSnapshotService)
+	private String authorName;
+
+	@Column(length = 500)
+	private String authorAvatarUrl;
+
 	// getters & setters
 	public Long getId() {
 		return id;
@@ -74,4 +100,36 @@ public class Review {
 	public void setFecha(LocalDateTime fecha) {
 		this.fecha = fecha;
 	}
+
+	public int getHelpfulCount() {
+		return helpfulCount;
+	}
+
+	public void setHelpfulCount(int helpfulCount) {
+		this.helpfulCount = helpfulCount;
+	}
+
+	public int getReplyCount() {
+		return replyCount;
+	}
+
+	public void setReplyCount(int replyCount) {
+		this.replyCount = replyCount;
+	}
+
+	public String getAuthorName() {
+		return authorName;
+	}
+
+	public void setAuthorName(String authorName) {
+		this.authorName = authorName;
+	}
+
+	public String getAuthorAvatarUrl() {
+		return authorAvatarUrl;
+	}
+
+	public void setAuthorAvatarUrl(String authorAvatarUrl) {
+		this.authorAvatarUrl = authorAvatarUrl;
+	}
 }
@@ -7,10 +7,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "review_replies")
+@Table(name = "review_replies", indexes = {
+    @Index(name = "idx_review_replies_review", columnList = "review_id"),
+    @Index(name = "idx_review_replies_author", columnList = "author_id")
+})
 public class ReviewReply {
 
     @Id
@@ -28,6 +32,12 @@ public class ReviewReply {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Copia del autor al escribir, para no consultar usuarios al leer (ver AuthorSnapshotService)
+    private String authorName;
+
+    @Column(length = 500)
+    private String authorAvatarUrl;
+
     public Long getId() {
         return id;
     }
@@ -67,5 +77,20 @@ public class ReviewReply {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public void setAuthorName(String authorName) {
+        this.authorName = authorName;
+    }
+
+    public String getAuthorAvatarUrl() {
+        return authorAvatarUrl;
+    }
+
+    public void setAuthorAvatarUrl(String authorAvatarUrl) {
+        this.authorAvatarUrl = authorAvatarUrl;
+    }
+}
@@ -7,10 +7,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "review_reply_notifications")
+@Table(name = "review_reply_notifications", indexes = {
+    // Contador de no leídas (cubierto por el índice) y "marcar todas"
+    @Index(name = "idx_reply_notif_user_read_created", columnList = "user_id, read_flag, created_at"),
+    // Listado de las 20 más recientes sin ordenar en memoria
+    @Index(name = "idx_reply_notif_user_created", columnList = "user_id, created_at")
+})
 public class ReviewReplyNotification {
 
     @Id
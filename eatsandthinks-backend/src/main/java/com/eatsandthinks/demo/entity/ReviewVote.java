@@ -0,0 +1,36 @@
+package com.eatsandthinks.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Voto de "útil" de un usuario a una reseña. El índice único garantiza un voto por usuario;
+ * el total se acumula en resenas.helpful_count (ver HelpfulVoteService).
+ */
+@Entity
+@Table(name = "review_votes",
+       uniqueConstraints = @UniqueConstraint(name = "uk_review_votes_review_user", columnNames = {"review_id", "user_id"}),
+       indexes = @Index(name = "idx_review_votes_user", columnList = "user_id"))
+public class ReviewVote {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "review_id", nullable = false)
+    private Long reviewId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getReviewId() { return reviewId; }
+    public void setReviewId(Long reviewId) { this.reviewId = reviewId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,67 @@
+package com.eatsandthinks.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Copia persistida de los contadores de actividad por hora de TrendingService,
+ * para no perder la ventana al reiniciar. La escribe el propio servicio con upserts.
+ */
+@Entity
+@Table(name = "trending_buckets",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"place_id", "hour_epoch"}),
+       indexes = @Index(name = "idx_trending_buckets_hour", columnList = "hour_epoch"))
+public class TrendingBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "place_id", nullable = false)
+    private String placeId;
+
+    // Horas desde 1970-01-01T00:00Z
+    @Column(name = "hour_epoch", nullable = false)
+    private long hourEpoch;
+
+    @Column(nullable = false)
+    private long score;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPlaceId() {
+        return placeId;
+    }
+
+    public void setPlaceId(String placeId) {
+        this.placeId = placeId;
+    }
+
+    public long getHourEpoch() {
+        return hourEpoch;
+    }
+
+    public void setHourEpoch(long hourEpoch) {
+        this.hourEpoch = hourEpoch;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public void setScore(long score) {
+        this.score = score;
+    }
+}
@@ -10,5 +10,5 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUserIdAndLocalId(Long userId, Long localId);
     Optional<Favorite> findByUserIdAndPlaceId(Long userId, String placeId);
     boolean existsByUserIdAndLocalId(Long userId, Long localId);
-    void deleteByUserIdAndLocalId(Long userId, Long localId);
+    long deleteByUserIdAndLocalId(Long userId, Long localId);
 }
@@ -1,14 +1,66 @@
 package com.eatsandthinks.demo.repository;
 
 import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LocalRepository extends JpaRepository<LocalEntity, Long> {
+public interface LocalRepository extends JpaRepository<LocalEntity, Long>,
+        JpaSpecificationExecutor<LocalEntity>, LocalSearchRepository {
     List<LocalEntity> findByTipoContainingIgnoreCase(String tipo);
     List<LocalEntity> findByNombreContainingIgnoreCase(String nombre);
     Optional<LocalEntity> findByPlaceId(String placeId);
     List<LocalEntity> findBySource(LocalEntity.Source source);
     List<LocalEntity> findByCreadoPorUsuarioId(Long userId);
-}
\ No newline at end of file
+
+    String LOCAL_SUMMARY_SELECT = "SELECT new com.eatsandthinks.demo.repository.projection.LocalSummary("
+        + "l.id, l.placeId, l.nombre, l.direccion, l.latitud, l.longitud, l.rating, "
+        + "l.totalValoraciones, l.precioNivel, l.fotoRef, l.tipo, l.abierto) FROM LocalEntity l";
+
+    @Transactional(readOnly = true)
+    @Query(LOCAL_SUMMARY_SELECT)
+    List<LocalSummary> findAllSummaries();
+
+    @Transactional(readOnly = true)
+    @Query(LOCAL_SUMMARY_SELECT + " WHERE l.source = :source")
+    List<LocalSummary> findSummariesBySource(@Param("source") LocalEntity.Source source);
+
+    @Transactional(readOnly = true)
+    @Query(LOCAL_SUMMARY_SELECT + " WHERE l.placeId IN :placeIds")
+    List<LocalSummary> findSummariesByPlaceIdIn(@Param("placeIds") Collection<String> placeIds);
+
+    /**
+     * Copia la media y el recuento de reseñas propias desde place_summary en una sola sentencia.
+     * Si el local se ha quedado sin reseñas se conservan los valores anteriores.
+     */
+    @Modifying
+    @Query(value = "UPDATE locales l JOIN place_summary s ON s.local_id = l.id "
+        + "SET l.rating = s.rating_sum / s.review_count, l.total_valoraciones = s.review_count "
+        + "WHERE l.id = :localId AND s.review_count > 0", nativeQuery = true)
+    int syncRatingFromSummary(@Param("localId") Long localId);
+
+    @Modifying
+    @Query(value = "UPDATE locales l JOIN place_summary s ON s.local_id = l.id "
+        + "SET l.rating = s.rating_sum / s.review_count, l.total_valoraciones = s.review_count "
+        + "WHERE l.id IN (:localIds) AND s.review_count > 0", nativeQuery = true)
+    int syncRatingsFromSummary(@Param("localIds") Collection<Long> localIds);
+
+    // Recorre toda la tabla con un cursor JDBC (requiere useCursorFetch=true en MySQL)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("SELECT l FROM LocalEntity l ORDER BY l.id")
+    Stream<LocalEntity> streamAll();
+}
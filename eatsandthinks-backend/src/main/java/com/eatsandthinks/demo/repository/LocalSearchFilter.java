@@ -0,0 +1,37 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filtros de búsqueda sobre los locales guardados en la BD.
+ * Todos los campos son opcionales; un filtro vacío no restringe nada.
+ */
+public record LocalSearchFilter(
+    String query,
+    Double minRating,
+    List<Integer> priceLevels,
+    boolean openNowOnly,
+    List<String> cuisineTypes
+) {
+    public static LocalSearchFilter of(String query, Double minRating, List<Integer> priceLevels,
+                                       Boolean openNowOnly, String cuisineTypes) {
+        List<String> cuisines = cuisineTypes == null || cuisineTypes.isBlank()
+            ? List.of()
+            : Arrays.stream(cuisineTypes.split(","))
+                .map(String::trim)
+                .filter(c -> !c.isEmpty())
+                .toList();
+        return new LocalSearchFilter(
+            query == null || query.isBlank() ? null : query.trim(),
+            minRating,
+            priceLevels == null ? List.of() : priceLevels,
+            Boolean.TRUE.equals(openNowOnly),
+            cuisines
+        );
+    }
+
+    public boolean isEmpty() {
+        return query == null && minRating == null && priceLevels.isEmpty() && !openNowOnly && cuisineTypes.isEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+
+public interface LocalSearchRepository {
+
+    /**
+     * Devuelve como máximo {@code limit} locales que cumplen la especificación,
+     * proyectados a LocalSummary y ordenados por rating descendente.
+     */
+    List<LocalSummary> searchSummaries(Specification<LocalEntity> spec, int limit);
+}
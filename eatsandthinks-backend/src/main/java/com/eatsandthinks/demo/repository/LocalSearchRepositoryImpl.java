@@ -0,0 +1,52 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class LocalSearchRepositoryImpl implements LocalSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LocalSummary> searchSummaries(Specification<LocalEntity> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LocalSummary> query = cb.createQuery(LocalSummary.class);
+        Root<LocalEntity> root = query.from(LocalEntity.class);
+        query.select(cb.construct(LocalSummary.class,
+            root.get("id"),
+            root.get("placeId"),
+            root.get("nombre"),
+            root.get("direccion"),
+            root.get("latitud"),
+            root.get("longitud"),
+            root.get("rating"),
+            root.get("totalValoraciones"),
+            root.get("precioNivel"),
+            root.get("fotoRef"),
+            root.get("tipo"),
+            root.get("abierto")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("rating")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .setHint("org.hibernate.readOnly", true)
+            .getResultList();
+    }
+}
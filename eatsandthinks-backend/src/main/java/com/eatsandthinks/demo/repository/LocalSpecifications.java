@@ -0,0 +1,80 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.util.CuisineIndex;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicados reutilizables sobre LocalEntity.
+ * Cada filtro se traduce a una condición SQL que puede apoyarse en los índices de "locales".
+ */
+public final class LocalSpecifications {
+
+    private LocalSpecifications() {}
+
+    public static Specification<LocalEntity> minRating(double minRating) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), minRating);
+    }
+
+    public static Specification<LocalEntity> priceLevelIn(List<Integer> priceLevels) {
+        return (root, query, cb) -> root.get("precioNivel").in(priceLevels);
+    }
+
+    public static Specification<LocalEntity> openNow() {
+        return (root, query, cb) -> cb.isTrue(root.get("abierto"));
+    }
+
+    /**
+     * Coincidencia por prefijo del tipo (tipo LIKE 'italian%'), que MySQL puede resolver con el índice.
+     * La intercalación de la tabla ya es case-insensitive, así que no se aplica lower().
+     */
+    public static Specification<LocalEntity> tipoStartsWithAny(List<String> tipos) {
+        return (root, query, cb) -> cb.or(tipos.stream()
+            .map(tipo -> cb.like(root.get("tipo"), escapeLike(tipo) + "%", '\\'))
+            .toArray(Predicate[]::new));
+    }
+
+    public static Specification<LocalEntity> nameOrTipoContains(String text) {
+        return (root, query, cb) -> {
+            String pattern = "%" + escapeLike(text) + "%";
+            return cb.or(
+                cb.like(root.get("nombre"), pattern, '\\'),
+                cb.like(root.get("tipo"), pattern, '\\'));
+        };
+    }
+
+    /**
+     * Combina todos los filtros presentes en una única especificación (AND).
+     */
+    public static Specification<LocalEntity> matching(LocalSearchFilter filter) {
+        List<Specification<LocalEntity>> specs = new ArrayList<>();
+        if (filter.query() != null) {
+            specs.add(nameOrTipoContains(filter.query()));
+        }
+        if (filter.minRating() != null) {
+            specs.add(minRating(filter.minRating()));
+        }
+        if (!filter.priceLevels().isEmpty()) {
+            specs.add(priceLevelIn(filter.priceLevels()));
+        }
+        if (filter.openNowOnly()) {
+            specs.add(openNow());
+        }
+        if (!filter.cuisineTypes().isEmpty()) {
+            specs.add(tipoStartsWithAny(List.copyOf(CuisineIndex.expand(filter.cuisineTypes()))));
+        }
+        return (root, query, cb) -> cb.and(specs.stream()
+            .map(spec -> spec.toPredicate(root, query, cb))
+            .toArray(Predicate[]::new));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,102 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.eatsandthinks.demo.entity.PlaceSummary;
+
+public interface PlaceSummaryRepository extends JpaRepository<PlaceSummary, Long> {
+
+    String SEED_SELECT = "SELECT l.id, l.place_id, "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id), "
+        + "(SELECT COALESCE(SUM(r.puntuacion), 0) FROM resenas r WHERE r.local_id = l.id), "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id AND r.puntuacion = 1), "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id AND r.puntuacion = 2), "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id AND r.puntuacion = 3), "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id AND r.puntuacion = 4), "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.local_id = l.id AND r.puntuacion = 5), "
+        + "(SELECT COUNT(*) FROM favoritos f WHERE f.local_id = l.id), "
+        + "(SELECT COUNT(*) FROM review_replies rr JOIN resenas r ON r.id = rr.review_id WHERE r.local_id = l.id), "
+        + "NOW(6) FROM locales l";
+
+    String SEED_INSERT = "INSERT IGNORE INTO place_summary "
+        + "(local_id, place_id, review_count, rating_sum, star_1, star_2, star_3, star_4, star_5, "
+        + "favorite_count, reply_count, last_activity_at) ";
+
+    /**
+     * Crea la fila a partir de las tablas de origen si todavía no existe.
+     * Debe ejecutarse en su propia transacción (ver PlaceSummaryService.ensureRow).
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE l.id = :localId", nativeQuery = true)
+    int seed(@Param("localId") Long localId);
+
+    /**
+     * Fila a cero para un local creado en la transacción en curso (todavía invisible para las demás).
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + "SELECT l.id, l.place_id, 0, 0, 0, 0, 0, 0, 0, 0, 0, NOW(6) FROM locales l "
+        + "WHERE l.id = :localId", nativeQuery = true)
+    int insertEmpty(@Param("localId") Long localId);
+
+    /**
+     * Siembra los locales del rango que aún no tienen fila (relleno inicial al arrancar).
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE l.id BETWEEN :fromId AND :toId "
+        + "AND NOT EXISTS (SELECT 1 FROM place_summary s WHERE s.local_id = l.id)", nativeQuery = true)
+    int seedMissingInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query(value = "SELECT MAX(id) FROM locales", nativeQuery = true)
+    Long findMaxLocalId();
+
+    /**
+     * Mismas columnas que la siembra, sin escribir: para leer locales que aún no tienen fila.
+     */
+    @Query(value = SEED_SELECT + " WHERE l.id IN (:localIds)", nativeQuery = true)
+    List<Object[]> computeByLocalIds(@Param("localIds") Collection<Long> localIds);
+
+    @Query(value = "SELECT l.place_id, l.id FROM locales l WHERE l.place_id IN (:placeIds)", nativeQuery = true)
+    List<Object[]> findLocalIdsByPlaceIds(@Param("placeIds") Collection<String> placeIds);
+
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE l.id IN (:localIds)", nativeQuery = true)
+    int seedByLocalIds(@Param("localIds") Collection<Long> localIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM place_summary WHERE local_id IN (:localIds)", nativeQuery = true)
+    int deleteByLocalIds(@Param("localIds") Collection<Long> localIds);
+
+    /**
+     * Aplica el cambio de una reseña: {@code added}/{@code removed} son las estrellas que entran
+     * y salen (0 si no aplica), de modo que recuento, suma e histograma se actualizan en una sola sentencia.
+     */
+    @Modifying
+    @Query("UPDATE PlaceSummary s SET "
+        + "s.reviewCount = s.reviewCount + (CASE WHEN :added > 0 THEN 1 ELSE 0 END) - (CASE WHEN :removed > 0 THEN 1 ELSE 0 END), "
+        + "s.ratingSum = s.ratingSum + :added - :removed, "
+        + "s.star1 = s.star1 + (CASE WHEN :added = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 1 THEN 1 ELSE 0 END), "
+        + "s.star2 = s.star2 + (CASE WHEN :added = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 2 THEN 1 ELSE 0 END), "
+        + "s.star3 = s.star3 + (CASE WHEN :added = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 3 THEN 1 ELSE 0 END), "
+        + "s.star4 = s.star4 + (CASE WHEN :added = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 4 THEN 1 ELSE 0 END), "
+        + "s.star5 = s.star5 + (CASE WHEN :added = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removed = 5 THEN 1 ELSE 0 END), "
+        + "s.lastActivityAt = :now WHERE s.localId = :localId")
+    int applyReviewDelta(@Param("localId") Long localId, @Param("added") int added,
+                         @Param("removed") int removed, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PlaceSummary s SET s.favoriteCount = s.favoriteCount + :delta, s.lastActivityAt = :now "
+        + "WHERE s.localId = :localId")
+    int applyFavoriteDelta(@Param("localId") Long localId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PlaceSummary s SET s.replyCount = s.replyCount + :delta, s.lastActivityAt = :now "
+        + "WHERE s.localId = :localId")
+    int applyReplyDelta(@Param("localId") Long localId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.eatsandthinks.demo.entity.ReviewPhoto;
+import com.eatsandthinks.demo.entity.ReviewPhoto.Status;
+
+public interface ReviewPhotoRepository extends JpaRepository<ReviewPhoto, Long> {
+
+    List<ReviewPhoto> findByReviewId(Long reviewId);
+
+    List<ReviewPhoto> findByReviewIdInAndStatusOrderByIdAsc(Collection<Long> reviewIds, Status status);
+
+    long countByReviewIdAndStatusNot(Long reviewId, Status status);
+
+    List<ReviewPhoto> findByStatusAndUpdatedAtBefore(Status status, LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ReviewPhoto p WHERE p.reviewId = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+}
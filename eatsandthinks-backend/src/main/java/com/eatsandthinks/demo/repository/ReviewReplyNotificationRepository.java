@@ -3,6 +3,9 @@ package com.eatsandthinks.demo.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.eatsandthinks.demo.entity.ReviewReplyNotification;
 
@@ -12,8 +15,16 @@ public interface ReviewReplyNotificationRepository extends JpaRepository<ReviewR
 
     List<ReviewReplyNotification> findTop20ByUserIdOrderByCreatedAtDesc(Long userId);
 
-    List<ReviewReplyNotification> findByUserIdAndReadFlagFalse(Long userId);
-
-    List<ReviewReplyNotification> findByIdInAndUserId(List<Long> ids, Long userId);
+    /**
+     * Devuelven cuántas notificaciones pasaron de no leídas a leídas.
+     */
+    @Modifying
+    @Query("UPDATE ReviewReplyNotification n SET n.readFlag = true WHERE n.userId = :userId AND n.readFlag = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE ReviewReplyNotification n SET n.readFlag = true "
+        + "WHERE n.userId = :userId AND n.id IN :ids AND n.readFlag = false")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") List<Long> ids);
 }
 
@@ -1,8 +1,13 @@
 package com.eatsandthinks.demo.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.eatsandthinks.demo.entity.ReviewReply;
 
@@ -10,6 +15,27 @@ public interface ReviewReplyRepository extends JpaRepository<ReviewReply, Long>
 
     List<ReviewReply> findByReviewIdOrderByCreatedAtAsc(Long reviewId);
 
+    /**
+     * Página de un hilo por clave (id ascendente); usa idx_review_replies_review, que ya incluye el id.
+     */
+    List<ReviewReply> findByReviewIdAndIdGreaterThanOrderByIdAsc(Long reviewId, Long afterId, Limit limit);
+
+    /**
+     * Las primeras {@code perThread} respuestas de cada reseña en una sola consulta.
+     */
+    @Query(value = "SELECT id, review_id, author_id, content, created_at, author_name, author_avatar_url FROM ("
+        + "SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.review_id ORDER BY r.id) AS rn "
+        + "FROM review_replies r WHERE r.review_id IN (:reviewIds)) t "
+        + "WHERE t.rn <= :perThread ORDER BY t.review_id, t.id", nativeQuery = true)
+    List<ReviewReply> findFirstPerReview(@Param("reviewIds") Collection<Long> reviewIds, @Param("perThread") int perThread);
+
     long countByReviewId(Long reviewId);
-}
 
+    @Query("SELECT r.id FROM ReviewReply r WHERE r.authorId = :authorId AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsByAuthorIdAfter(@Param("authorId") Long authorId, @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE ReviewReply r SET r.authorName = :name, r.authorAvatarUrl = :avatar WHERE r.id IN :ids")
+    int updateAuthorSnapshot(@Param("ids") Collection<Long> ids, @Param("name") String name,
+                             @Param("avatar") String avatar);
+}
@@ -1,10 +1,67 @@
 package com.eatsandthinks.demo.repository;
 
 import com.eatsandthinks.demo.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewSearchRepository {
     List<Review> findByLocalId(Long localId);
     List<Review> findByUserId(Long userId);
+
+    // Paginación por clave (keyset): se continúa después de la última fila vista en vez de usar OFFSET.
+    // El id desempata reseñas con la misma fecha para que el orden sea total.
+
+    @Query("SELECT r FROM Review r WHERE r.localId = :localId "
+        + "AND (r.fecha < :fecha OR (r.fecha = :fecha AND r.id < :id)) "
+        + "ORDER BY r.fecha DESC, r.id DESC")
+    List<Review> findPageNewest(@Param("localId") Long localId, @Param("fecha") LocalDateTime fecha,
+                                @Param("id") Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.localId = :localId "
+        + "AND (r.puntuacion < :puntuacion OR (r.puntuacion = :puntuacion "
+        + "AND (r.fecha < :fecha OR (r.fecha = :fecha AND r.id < :id)))) "
+        + "ORDER BY r.puntuacion DESC, r.fecha DESC, r.id DESC")
+    List<Review> findPageHighest(@Param("localId") Long localId, @Param("puntuacion") Integer puntuacion,
+                                 @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.localId = :localId "
+        + "AND (r.puntuacion > :puntuacion OR (r.puntuacion = :puntuacion "
+        + "AND (r.fecha < :fecha OR (r.fecha = :fecha AND r.id < :id)))) "
+        + "ORDER BY r.puntuacion ASC, r.fecha DESC, r.id DESC")
+    // Direcciones mixtas: usa idx_resenas_local_puntuacion_asc_fecha_desc (índice descendente de MySQL 8)
+    List<Review> findPageLowest(@Param("localId") Long localId, @Param("puntuacion") Integer puntuacion,
+                                @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT r FROM Review r WHERE r.localId = :localId "
+        + "AND (r.helpfulCount < :helpful OR (r.helpfulCount = :helpful "
+        + "AND (r.fecha < :fecha OR (r.fecha = :fecha AND r.id < :id)))) "
+        + "ORDER BY r.helpfulCount DESC, r.fecha DESC, r.id DESC")
+    List<Review> findPageHelpful(@Param("localId") Long localId, @Param("helpful") Integer helpful,
+                                 @Param("fecha") LocalDateTime fecha, @Param("id") Long id, Limit limit);
+
+    /**
+     * Suma {@code delta} a reply_count en la propia fila, sin leerla antes (nunca baja de 0).
+     */
+    @Modifying
+    @Query(value = "UPDATE resenas SET reply_count = GREATEST(reply_count + :delta, 0) WHERE id = :id", nativeQuery = true)
+    int addReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query(value = "SELECT DISTINCT l.place_id FROM resenas r JOIN locales l ON l.id = r.local_id "
+        + "WHERE r.id IN (:reviewIds)", nativeQuery = true)
+    List<String> findPlaceIdsByReviewIds(@Param("reviewIds") Collection<Long> reviewIds);
+
+    // Propagación por bloques de los datos del autor (AuthorSnapshotService)
+    @Query("SELECT r.id FROM Review r WHERE r.userId = :userId AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.authorName = :name, r.authorAvatarUrl = :avatar WHERE r.id IN :ids")
+    int updateAuthorSnapshot(@Param("ids") Collection<Long> ids, @Param("name") String name,
+                             @Param("avatar") String avatar);
 }
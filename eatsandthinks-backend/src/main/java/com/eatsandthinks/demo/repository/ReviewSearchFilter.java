@@ -0,0 +1,44 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Filtros del buscador de reseñas del panel de administración.
+ * Todos los campos son opcionales; las fechas se interpretan como días completos [from, to].
+ */
+public record ReviewSearchFilter(
+    Long userId,
+    Long localId,
+    LocalDateTime from,
+    LocalDateTime toExclusive,
+    Integer minRating,
+    Integer maxRating,
+    String text
+) {
+    public static ReviewSearchFilter of(Long userId, Long localId, String from, String to,
+                                        Integer minRating, Integer maxRating, String text) {
+        LocalDateTime toDay = parseDay(to, "to");
+        return new ReviewSearchFilter(
+            userId,
+            localId,
+            parseDay(from, "from"),
+            toDay != null ? toDay.plusDays(1) : null,
+            minRating,
+            maxRating,
+            text == null || text.isBlank() ? null : text.trim()
+        );
+    }
+
+    private static LocalDateTime parseDay(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim()).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida en '" + name + "' (formato yyyy-MM-dd)");
+        }
+    }
+}
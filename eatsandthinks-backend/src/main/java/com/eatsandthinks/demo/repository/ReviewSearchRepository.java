@@ -0,0 +1,23 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatsandthinks.demo.entity.Review;
+
+public interface ReviewSearchRepository {
+
+    /**
+     * Devuelve como máximo {@code limit} reseñas que cumplen la especificación, de la más reciente
+     * (id mayor) a la más antigua. Se pagina añadiendo ReviewSpecifications.idBefore(últimoId).
+     */
+    List<Review> searchNewestFirst(Specification<Review> spec, int limit);
+
+    /**
+     * Recorre todas las reseñas que cumplen la especificación en orden de id con un cursor JDBC.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    Stream<Review> streamMatching(Specification<Review> spec);
+}
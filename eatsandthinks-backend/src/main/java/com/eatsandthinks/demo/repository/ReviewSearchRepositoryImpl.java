@@ -0,0 +1,60 @@
+package com.eatsandthinks.demo.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatsandthinks.demo.entity.Review;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class ReviewSearchRepositoryImpl implements ReviewSearchRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Review> searchNewestFirst(Specification<Review> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Review> query = cb.createQuery(Review.class);
+        Root<Review> root = query.from(Review.class);
+        applyWhere(spec, root, query, cb);
+        query.orderBy(cb.desc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .setHint("org.hibernate.readOnly", true)
+            .getResultList();
+    }
+
+    @Override
+    public Stream<Review> streamMatching(Specification<Review> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Review> query = cb.createQuery(Review.class);
+        Root<Review> root = query.from(Review.class);
+        applyWhere(spec, root, query, cb);
+        query.orderBy(cb.asc(root.get("id")));
+        // Requiere useCursorFetch=true en la URL de MySQL para que el fetch size sea efectivo
+        return entityManager.createQuery(query)
+            .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+            .setHint("org.hibernate.readOnly", true)
+            .setHint("org.hibernate.cacheable", false)
+            .getResultStream();
+    }
+
+    private void applyWhere(Specification<Review> spec, Root<Review> root, CriteriaQuery<Review> query, CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatsandthinks.demo.entity.Review;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicados reutilizables sobre Review para el buscador de administración.
+ */
+public final class ReviewSpecifications {
+
+    private ReviewSpecifications() {}
+
+    public static Specification<Review> byUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Review> byLocal(Long localId) {
+        return (root, query, cb) -> cb.equal(root.get("localId"), localId);
+    }
+
+    public static Specification<Review> fechaFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fecha"), from);
+    }
+
+    public static Specification<Review> fechaBefore(LocalDateTime toExclusive) {
+        return (root, query, cb) -> cb.lessThan(root.get("fecha"), toExclusive);
+    }
+
+    public static Specification<Review> minRating(int minRating) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("puntuacion"), minRating);
+    }
+
+    public static Specification<Review> maxRating(int maxRating) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("puntuacion"), maxRating);
+    }
+
+    /**
+     * Búsqueda de texto libre en el comentario. Un LIKE con comodín inicial no puede usar índice,
+     * así que conviene combinarlo con otro filtro (usuario, local o fechas).
+     */
+    public static Specification<Review> comentarioContains(String text) {
+        return (root, query, cb) -> cb.like(root.get("comentario"), "%" + escapeLike(text) + "%", '\\');
+    }
+
+    /**
+     * Cursor de la paginación por clave: reseñas con id menor que el último visto.
+     */
+    public static Specification<Review> idBefore(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+
+    /**
+     * Combina todos los filtros presentes en una única especificación (AND).
+     */
+    public static Specification<Review> matching(ReviewSearchFilter filter) {
+        List<Specification<Review>> specs = new ArrayList<>();
+        if (filter.userId() != null) {
+            specs.add(byUser(filter.userId()));
+        }
+        if (filter.localId() != null) {
+            specs.add(byLocal(filter.localId()));
+        }
+        if (filter.from() != null) {
+            specs.add(fechaFrom(filter.from()));
+        }
+        if (filter.toExclusive() != null) {
+            specs.add(fechaBefore(filter.toExclusive()));
+        }
+        if (filter.minRating() != null) {
+            specs.add(minRating(filter.minRating()));
+        }
+        if (filter.maxRating() != null) {
+            specs.add(maxRating(filter.maxRating()));
+        }
+        if (filter.text() != null) {
+            specs.add(comentarioContains(filter.text()));
+        }
+        return (root, query, cb) -> cb.and(specs.stream()
+            .map(spec -> spec.toPredicate(root, query, cb))
+            .toArray(Predicate[]::new));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
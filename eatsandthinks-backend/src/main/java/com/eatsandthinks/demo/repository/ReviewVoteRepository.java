@@ -0,0 +1,27 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.eatsandthinks.demo.entity.ReviewVote;
+
+public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
+
+    /**
+     * Devuelve 1 si el voto es nuevo y 0 si el usuario ya había votado (lo descarta el índice único).
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO review_votes (review_id, user_id, created_at) VALUES (:reviewId, :userId, :now)",
+        nativeQuery = true)
+    int insertIfAbsent(@Param("reviewId") Long reviewId, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    long deleteByReviewIdAndUserId(Long reviewId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ReviewVote v WHERE v.reviewId = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+}
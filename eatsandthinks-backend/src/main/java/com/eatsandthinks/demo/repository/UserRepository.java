@@ -1,11 +1,33 @@
 package com.eatsandthinks.demo.repository;
 
 import com.eatsandthinks.demo.entity.User;
+import com.eatsandthinks.demo.repository.projection.AuthorSummary;
+import com.eatsandthinks.demo.repository.projection.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByNombreIgnoreCase(String nombre);
     boolean existsByNombreIgnoreCase(String nombre);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.eatsandthinks.demo.repository.projection.UserSummary("
+        + "u.id, u.nombre, u.email, u.role, u.banned, u.canReview, u.createdAt, u.lastLoginAt, u.profileImageUrl) "
+        + "FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+
+    @Query("SELECT new com.eatsandthinks.demo.repository.projection.UserSummary("
+        + "u.id, u.nombre, u.email, u.role, u.banned, u.canReview, u.createdAt, u.lastLoginAt, u.profileImageUrl) "
+        + "FROM User u WHERE u.email IN :emails")
+    List<UserSummary> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new com.eatsandthinks.demo.repository.projection.AuthorSummary(u.id, u.nombre, u.profileImageUrl) "
+        + "FROM User u WHERE u.id IN :ids")
+    List<AuthorSummary> findAuthorsByIdIn(@Param("ids") Collection<Long> ids);
 }
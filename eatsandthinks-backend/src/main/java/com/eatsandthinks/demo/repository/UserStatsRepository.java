@@ -0,0 +1,82 @@
+package com.eatsandthinks.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.eatsandthinks.demo.entity.UserStats;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    String SEED_SELECT = "SELECT u.id, "
+        + "(SELECT COUNT(*) FROM resenas r WHERE r.user_id = u.id), "
+        + "(SELECT COALESCE(SUM(r.puntuacion), 0) FROM resenas r WHERE r.user_id = u.id), "
+        + "(SELECT COUNT(*) FROM favoritos f WHERE f.user_id = u.id), "
+        + "(SELECT COUNT(*) FROM review_replies rr JOIN resenas r ON r.id = rr.review_id WHERE r.user_id = u.id), "
+        + "NOW(6) FROM usuarios u";
+
+    String SEED_INSERT = "INSERT IGNORE INTO user_stats "
+        + "(user_id, review_count, rating_sum, favorite_count, replies_received, updated_at) ";
+
+    /**
+     * Crea la fila a partir de las tablas de origen si todavía no existe.
+     * Debe ejecutarse en su propia transacción (ver UserStatsService.ensureRow).
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE u.id = :userId", nativeQuery = true)
+    int seed(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE u.id IN (:userIds)", nativeQuery = true)
+    int seedByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Fila a cero para un usuario creado en la transacción en curso.
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + "SELECT u.id, 0, 0, 0, 0, NOW(6) FROM usuarios u WHERE u.id = :userId", nativeQuery = true)
+    int insertEmpty(@Param("userId") Long userId);
+
+    /**
+     * Siembra los usuarios del rango que aún no tienen fila (relleno inicial al arrancar).
+     */
+    @Modifying
+    @Query(value = SEED_INSERT + SEED_SELECT + " WHERE u.id BETWEEN :fromId AND :toId "
+        + "AND NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)", nativeQuery = true)
+    int seedMissingInRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query(value = "SELECT MAX(id) FROM usuarios", nativeQuery = true)
+    Long findMaxUserId();
+
+    /**
+     * Mismas columnas que la siembra, sin escribir: para leer usuarios que aún no tienen fila.
+     */
+    @Query(value = SEED_SELECT + " WHERE u.id = :userId", nativeQuery = true)
+    List<Object[]> computeByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_stats WHERE user_id IN (:userIds)", nativeQuery = true)
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.reviewCount = s.reviewCount + :countDelta, "
+        + "s.ratingSum = s.ratingSum + :ratingDelta, s.updatedAt = :now WHERE s.userId = :userId")
+    int applyReviewDelta(@Param("userId") Long userId, @Param("countDelta") long countDelta,
+                         @Param("ratingDelta") long ratingDelta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.favoriteCount = s.favoriteCount + :delta, s.updatedAt = :now "
+        + "WHERE s.userId = :userId")
+    int applyFavoriteDelta(@Param("userId") Long userId, @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserStats s SET s.repliesReceived = s.repliesReceived + :delta, s.updatedAt = :now "
+        + "WHERE s.userId = :userId")
+    int applyRepliesReceivedDelta(@Param("userId") Long userId, @Param("delta") long delta,
+                                  @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package com.eatsandthinks.demo.repository.projection;
+
+/**
+ * Datos mínimos del autor que se muestran junto a reseñas y respuestas.
+ */
+public record AuthorSummary(
+    Long id,
+    String nombre,
+    String profileImageUrl
+) {}
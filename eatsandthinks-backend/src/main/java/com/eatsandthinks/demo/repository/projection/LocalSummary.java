@@ -0,0 +1,39 @@
+package com.eatsandthinks.demo.repository.projection;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+
+/**
+ * Vista de solo lectura de un local para listados.
+ * Se construye directamente en JPQL (SELECT new ...) sin cargar la entidad.
+ */
+public record LocalSummary(
+    Long id,
+    String placeId,
+    String name,
+    String formattedAddress,
+    Double lat,
+    Double lng,
+    Double rating,
+    Integer userRatingsTotal,
+    Integer priceLevel,
+    String photoRef,
+    String type,
+    Boolean openNow
+) {
+    public static LocalSummary of(LocalEntity e) {
+        return new LocalSummary(
+            e.getId(),
+            e.getPlaceId(),
+            e.getNombre(),
+            e.getDireccion(),
+            e.getLatitud(),
+            e.getLongitud(),
+            e.getRating(),
+            e.getTotalValoraciones(),
+            e.getPrecioNivel(),
+            e.getFotoRef(),
+            e.getTipo(),
+            e.getAbierto()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.eatsandthinks.demo.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista de solo lectura de un usuario para el panel de administración.
+ * No incluye contraseña, PIN de recuperación ni contadores de login.
+ */
+public record UserSummary(
+    Long id,
+    String nombre,
+    String email,
+    String role,
+    Boolean banned,
+    Boolean canReview,
+    LocalDateTime createdAt,
+    LocalDateTime lastLoginAt,
+    String profileImageUrl
+) {}
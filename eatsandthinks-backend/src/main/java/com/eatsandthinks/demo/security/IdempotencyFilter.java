@@ -0,0 +1,210 @@
+package com.eatsandthinks.demo.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.eatsandthinks.demo.security.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Soporte de la cabecera Idempotency-Key en los POST que crean datos (reseñas, respuestas, favoritos).
+ *
+ * La primera petición con una clave se ejecuta normalmente y su respuesta se guarda en
+ * IdempotencyStore, salvo los 5xx, 409 y 429: son fallos transitorios (límite de peticiones,
+ * conflicto momentáneo) y el reintento con la misma clave debe volver a ejecutarse.
+ * Los reintentos con la misma clave, usuario, método y ruta reciben esa respuesta sin
+ * llegar a los controladores ni a la BD. Va después del filtro JWT en la cadena de seguridad;
+ * no es un @Component para que no se registre además como filtro de servlet (donde aún no
+ * habría usuario autenticado).
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_STORED_BODY = 64 * 1024;
+    // Los cuerpos de reseñas, respuestas y favoritos son JSON pequeños; se leen enteros para la huella
+    private static final int MAX_REQUEST_BODY = 64 * 1024;
+    private static final List<String> PATHS = List.of(
+        "/api/reviews",
+        "/api/reviews/*/replies",
+        "/api/favorites"
+    );
+
+    private final IdempotencyStore store;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeMessage(response, 400, "Idempotency-Key no válida");
+            return;
+        }
+
+        if (request.getContentLengthLong() > MAX_REQUEST_BODY) {
+            writeMessage(response, 413, "El cuerpo de la petición es demasiado grande");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_REQUEST_BODY + 1);
+        if (body.length > MAX_REQUEST_BODY) {
+            // Sin Content-Length (chunked): no se lee más allá del límite
+            writeMessage(response, 413, "El cuerpo de la petición es demasiado grande");
+            return;
+        }
+        String fingerprint = sha256(body);
+        String scope = auth.getName() + "|" + request.getMethod() + "|" + request.getRequestURI() + "|" + key;
+
+        StoredResponse existing = store.begin(scope, fingerprint);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                writeMessage(response, 422, "La Idempotency-Key ya se usó con otro contenido");
+            } else if (!existing.completed()) {
+                writeMessage(response, 409, "La petición original aún se está procesando");
+            } else {
+                replay(response, existing);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+            int status = cachingResponse.getStatus();
+            byte[] responseBody = cachingResponse.getContentAsByteArray();
+            if (isReplayable(status) && responseBody.length <= MAX_STORED_BODY) {
+                store.complete(scope, fingerprint, status, cachingResponse.getContentType(), responseBody);
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.abandon(scope);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isReplayable(int status) {
+        return status < 500 && status != 409 && status != 429;
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeMessage(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json;charset=UTF-8");
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("message", message)));
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Petición cuyo cuerpo ya se leyó para calcular la huella; lo vuelve a servir al controlador.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.eatsandthinks.demo.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Respuestas guardadas por Idempotency-Key, con caducidad y tamaño máximo.
+ *
+ * Las entradas se guardan en orden de llegada, así que las caducadas siempre están al principio
+ * y se purgan al insertar; si se llega al máximo se descarta la más antigua.
+ * Mientras la petición original se procesa, la entrada queda marcada como "en curso".
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final LinkedHashMap<String, StoredResponse> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(@Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMs = ttlMinutes * 60_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Reserva la clave para una petición nueva y devuelve null, o devuelve la entrada existente
+     * (completada o en curso) si la clave ya se usó y no ha caducado.
+     */
+    public synchronized StoredResponse begin(String scope, String fingerprint) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        StoredResponse existing = entries.get(scope);
+        if (existing != null) {
+            return existing;
+        }
+        put(scope, StoredResponse.inProgress(fingerprint, now + ttlMs));
+        return null;
+    }
+
+    public synchronized void complete(String scope, String fingerprint, int status, String contentType, byte[] body) {
+        put(scope, new StoredResponse(fingerprint, true, status, contentType, body, System.currentTimeMillis() + ttlMs));
+    }
+
+    /**
+     * Libera la clave sin guardar respuesta (error del servidor): el reintento se ejecutará de nuevo.
+     */
+    public synchronized void abandon(String scope) {
+        StoredResponse existing = entries.get(scope);
+        if (existing != null && !existing.completed()) {
+            entries.remove(scope);
+        }
+    }
+
+    private void put(String scope, StoredResponse response) {
+        // Reinsertar al final para que el orden siga siendo el de caducidad
+        entries.remove(scope);
+        entries.put(scope, response);
+        if (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Map.Entry<String, StoredResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().expiresAt() > now) {
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    public record StoredResponse(
+        String fingerprint,
+        boolean completed,
+        int status,
+        String contentType,
+        byte[] body,
+        long expiresAt
+    ) {
+        static StoredResponse inProgress(String fingerprint, long expiresAt) {
+            return new StoredResponse(fingerprint, false, 0, null, null, expiresAt);
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/review-replies/stream";
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -31,6 +33,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = null;
         if (header != null && header.startsWith("Bearer ")) {
             token = header.substring(7);
+        } else if (STREAM_PATH.equals(request.getRequestURI())) {
+            // EventSource no permite cabeceras: solo para el canal SSE se acepta el token en la query
+            token = request.getParameter("access_token");
         }
 
         if (token != null && jwtUtils.validateJwt(token) && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -0,0 +1,78 @@
+package com.eatsandthinks.demo.security;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.eatsandthinks.demo.security.RateLimiter.Action;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica RateLimiter a la creación de reseñas y respuestas antes de llegar a los controladores.
+ * Va después de IdempotencyFilter: un reintento respondido desde la caché no gasta fichas.
+ * Como IdempotencyFilter, se crea en SecurityConfig y no es un @Component.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || actionFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            // Sin usuario la petición acabará en 401
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String role = auth.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .findFirst()
+            .orElse(null);
+        long retryAfter = rateLimiter.tryAcquire(actionFor(request), role, auth.getName());
+        if (retryAfter > 0) {
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.setContentType("application/json;charset=UTF-8");
+            response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of(
+                "message", "Demasiadas peticiones, inténtalo de nuevo en " + retryAfter + " segundos",
+                "retryAfter", retryAfter)));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Action actionFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (pathMatcher.match("/api/reviews", path)) {
+            return Action.REVIEW;
+        }
+        if (pathMatcher.match("/api/reviews/*/replies", path)) {
+            return Action.REPLY;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.eatsandthinks.demo.security;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límite de escrituras por usuario con token buckets en memoria.
+ *
+ * Cada usuario y acción tiene un cubo de capacidad C que se rellena a R fichas por hora.
+ * Los cubos se reparten en STRIPES mapas, cada uno con su propio cerrojo, así que dos
+ * usuarios solo compiten si caen en la misma franja. Los límites se configuran por
+ * acción y rol con app.rate-limit.{accion}.{ROL}=capacidad,fichasPorHora
+ * (por ejemplo app.rate-limit.reply.USER=10,120).
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+    private static final long IDLE_EVICT_NANOS = 3_600_000_000_000L;
+    private static final long NANOS_PER_HOUR = 3_600_000_000_000L;
+
+    public enum Action {
+        REVIEW("review", Map.of("GUEST", new Limit(2, 10), "USER", new Limit(5, 30), "ADMIN", new Limit(50, 600))),
+        REPLY("reply", Map.of("GUEST", new Limit(3, 20), "USER", new Limit(10, 120), "ADMIN", new Limit(100, 1200)));
+
+        private final String key;
+        private final Map<String, Limit> defaults;
+
+        Action(String key, Map<String, Limit> defaults) {
+            this.key = key;
+            this.defaults = defaults;
+        }
+    }
+
+    private final Map<Action, Map<String, Limit>> limits = new EnumMap<>(Action.class);
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public RateLimiter(Environment env) {
+        for (Action action : Action.values()) {
+            Map<String, Limit> byRole = new HashMap<>();
+            action.defaults.forEach((role, fallback) -> byRole.put(role,
+                Limit.parse(env.getProperty("app.rate-limit." + action.key + "." + role), fallback)));
+            limits.put(action, byRole);
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Consume una ficha. Devuelve 0 si la petición puede seguir, o los segundos que faltan
+     * para la siguiente ficha si el cubo está vacío.
+     */
+    public long tryAcquire(Action action, String role, String userKey) {
+        Limit limit = limitFor(action, role);
+        String bucketKey = action.key + "|" + userKey;
+        Stripe stripe = stripes[Math.floorMod(bucketKey.hashCode(), STRIPES)];
+        long now = System.nanoTime();
+        long waitSeconds;
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.computeIfAbsent(bucketKey, k -> new Bucket(limit.capacity(), now));
+            waitSeconds = bucket.tryTake(limit, now);
+        }
+        if (waitSeconds > 0) {
+            rejections.computeIfAbsent(action.key + ":" + normalizeRole(role), k -> new LongAdder()).increment();
+        }
+        return waitSeconds;
+    }
+
+    /**
+     * Rechazos acumulados por acción y rol, límites vigentes y número de cubos activos.
+     */
+    public RateLimitSnapshot snapshot() {
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        rejections.forEach((key, count) -> rejected.put(key, count.sum()));
+        Map<String, String> configured = new LinkedHashMap<>();
+        limits.forEach((action, byRole) -> byRole.forEach((role, limit) ->
+            configured.put(action.key + ":" + role, limit.capacity() + "," + limit.perHour())));
+        int buckets = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                buckets += stripe.buckets.size();
+            }
+        }
+        return new RateLimitSnapshot(configured, rejected, buckets);
+    }
+
+    /**
+     * Quita los cubos sin uso reciente; un cubo nuevo empieza lleno, así que el efecto es el mismo.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-ms:600000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Bucket> it = stripe.buckets.values().iterator();
+                while (it.hasNext()) {
+                    if (now - it.next().lastSeen > IDLE_EVICT_NANOS) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private Limit limitFor(Action action, String role) {
+        Map<String, Limit> byRole = limits.get(action);
+        return byRole.getOrDefault(normalizeRole(role), byRole.get("USER"));
+    }
+
+    private static String normalizeRole(String role) {
+        if (role == null) {
+            return "USER";
+        }
+        String clean = role.replace("ROLE_", "");
+        // SUPER_ADMIN y similares usan el límite de administrador
+        return clean.endsWith("ADMIN") ? "ADMIN" : clean;
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    /**
+     * Fichas disponibles (con decimales) y momento del último relleno. Solo se usa bajo el cerrojo de su franja.
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+        private long lastSeen;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+            this.lastSeen = now;
+        }
+
+        long tryTake(Limit limit, long now) {
+            double perNano = (double) limit.perHour() / NANOS_PER_HOUR;
+            tokens = Math.min(limit.capacity(), tokens + (now - lastRefill) * perNano);
+            lastRefill = now;
+            lastSeen = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (perNano <= 0) {
+                return 3600;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / perNano / 1_000_000_000L));
+        }
+    }
+
+    public record Limit(int capacity, int perHour) {
+        static Limit parse(String value, Limit fallback) {
+            if (value == null || value.isBlank()) {
+                return fallback;
+            }
+            try {
+                String[] parts = value.split(",");
+                return new Limit(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Límite no válido '" + value + "', se usa " + fallback);
+                return fallback;
+            }
+        }
+    }
+
+    public record RateLimitSnapshot(
+        Map<String, String> limits,
+        Map<String, Long> rejections,
+        int activeBuckets
+    ) {}
+}
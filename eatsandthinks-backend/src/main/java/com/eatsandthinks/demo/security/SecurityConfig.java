@@ -17,12 +17,20 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 public class SecurityConfig {
 
     @Autowired
     private JwtAuthenticationFilter jwtFilter;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -30,6 +38,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Reenvíos asíncronos (SSE): la petición original ya se autorizó
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Rutas públicas
                 .requestMatchers(
                     "/api/auth/**",           // Autenticación
@@ -40,7 +50,7 @@ public class SecurityConfig {
                     "/v3/api-docs/**",        // Swagger
                     "/swagger-ui/**"          // Swagger UI
                 ).permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/reviews/*/replies").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/reviews/*/replies", "/api/reviews/replies").permitAll()
                 // Rutas que requieren autenticación
                 .requestMatchers(
                     "/api/users/**",          // Usuario actual
@@ -55,6 +65,9 @@ public class SecurityConfig {
             );
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        // Después del JWT: las claves de idempotencia van por usuario
+        http.addFilterAfter(new IdempotencyFilter(idempotencyStore), JwtAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), IdempotencyFilter.class);
         return http.build();
     }
 
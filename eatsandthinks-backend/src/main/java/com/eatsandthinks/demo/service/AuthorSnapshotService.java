@@ -0,0 +1,117 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatsandthinks.demo.entity.User;
+import com.eatsandthinks.demo.repository.ReviewReplyRepository;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+import com.eatsandthinks.demo.repository.UserRepository;
+
+/**
+ * Propaga el nombre y el avatar de un usuario a la copia guardada en sus reseñas y respuestas.
+ *
+ * Se ejecuta en segundo plano y por bloques, cada uno en su propia transacción corta,
+ * para no bloquear filas de resenas/review_replies durante mucho tiempo.
+ *
+ * Solo hay una propagación en marcha por usuario: si llega otro cambio mientras tanto, se
+ * anota y al terminar se repite con los datos recién leídos. Así dos propagaciones no se
+ * intercalan por bloques y siempre queda la última versión del nombre y del avatar.
+ */
+@Service
+public class AuthorSnapshotService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewReplyRepository reviewReplyRepository;
+    private final ReviewPageCache reviewPageCache;
+    private final TransactionTemplate transactionTemplate;
+
+    // userId -> hay otro cambio pendiente de propagar (la clave solo existe mientras hay una en marcha)
+    private final Map<Long, Boolean> running = new ConcurrentHashMap<>();
+
+    public AuthorSnapshotService(UserRepository userRepository,
+                                 ReviewRepository reviewRepository,
+                                 ReviewReplyRepository reviewReplyRepository,
+                                 ReviewPageCache reviewPageCache,
+                                 PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        this.reviewReplyRepository = reviewReplyRepository;
+        this.reviewPageCache = reviewPageCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async("backgroundExecutor")
+    public void refreshAuthor(Long userId) {
+        boolean[] owner = { false };
+        running.compute(userId, (id, rerun) -> {
+            if (rerun == null) {
+                owner[0] = true;
+                return Boolean.FALSE;
+            }
+            return Boolean.TRUE;
+        });
+        if (!owner[0]) {
+            // La propagación en curso se repetirá al terminar
+            return;
+        }
+
+        try {
+            boolean again;
+            do {
+                propagate(userId);
+                again = running.compute(userId, (id, rerun) -> Boolean.TRUE.equals(rerun) ? Boolean.FALSE : null) != null;
+            } while (again);
+        } catch (RuntimeException e) {
+            running.remove(userId);
+            throw e;
+        }
+    }
+
+    private void propagate(Long userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return;
+        }
+        String name = user.getNombre();
+        String avatar = user.getProfileImageUrl();
+
+        long reviews = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = reviewRepository.findIdsByUserIdAfter(userId, afterId, Limit.of(CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            reviews += transactionTemplate.execute(status -> reviewRepository.updateAuthorSnapshot(ids, name, avatar));
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        long replies = 0;
+        afterId = 0;
+        while (true) {
+            List<Long> ids = reviewReplyRepository.findIdsByAuthorIdAfter(userId, afterId, Limit.of(CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            replies += transactionTemplate.execute(status -> reviewReplyRepository.updateAuthorSnapshot(ids, name, avatar));
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (reviews > 0) {
+            // Las reseñas del usuario pueden estar en cualquier local cacheado
+            reviewPageCache.invalidateAll();
+        }
+        System.out.println("👤 Autor " + userId + " actualizado en " + reviews + " reseñas y " + replies + " respuestas");
+    }
+}
@@ -0,0 +1,326 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+import com.eatsandthinks.demo.util.SpanishTokenizer;
+import com.eatsandthinks.demo.util.TransactionHooks;
+
+/**
+ * Índice invertido de platos sobre el texto de las reseñas (tabla dish_mentions).
+ *
+ * Cada fila es término → local con el número de reseñas del local que lo mencionan.
+ * Se actualiza en la misma transacción que la reseña: al crear suma 1 a cada término
+ * distinto del comentario, al editar aplica solo la diferencia y al borrar resta.
+ * La búsqueda tokeniza la consulta igual y resuelve todo con un GROUP BY sobre el índice.
+ */
+@Service
+public class DishIndexService {
+
+    private static final int MAX_QUERY_TERMS = 5;
+    private static final int REBUILD_CHUNK = 1000;
+    private static final String TABLE = "dish_mentions";
+    private static final String STAGING_TABLE = "dish_mentions_rebuild";
+    private static final String OLD_TABLE = "dish_mentions_old";
+    private static final String UPSERT_SQL = "INSERT INTO %s (term, local_id, mention_count) VALUES (?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE mention_count = mention_count + VALUES(mention_count)";
+    private static final String DECREMENT_SQL = "UPDATE %s SET mention_count = mention_count - ? "
+        + "WHERE term = ? AND local_id = ?";
+    private static final String CLEANUP_SQL = "DELETE FROM %s WHERE local_id = ? AND mention_count <= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalRepository localRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Reconstrucción en curso (null si no hay) y cambios confirmados mientras tanto
+    private volatile Rebuild activeRebuild;
+    private final Queue<PendingDelta> pendingDeltas = new ConcurrentLinkedQueue<>();
+
+    public DishIndexService(JdbcTemplate jdbcTemplate,
+                            LocalRepository localRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localRepository = localRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void onReviewCreated(Long reviewId, Long localId, String comentario) {
+        Map<TermLocal, Integer> delta = new TreeMap<>();
+        SpanishTokenizer.terms(comentario).forEach(term -> delta.put(new TermLocal(term, localId), 1));
+        write(reviewId, delta);
+    }
+
+    public void onReviewUpdated(Long reviewId, Long localId, String oldComentario, String newComentario) {
+        Set<String> before = SpanishTokenizer.terms(oldComentario);
+        Set<String> after = SpanishTokenizer.terms(newComentario);
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        after.removeAll(before);
+        Map<TermLocal, Integer> delta = new TreeMap<>();
+        removed.forEach(term -> delta.put(new TermLocal(term, localId), -1));
+        after.forEach(term -> delta.put(new TermLocal(term, localId), 1));
+        write(reviewId, delta);
+    }
+
+    public void onReviewDeleted(Long reviewId, Long localId, String comentario) {
+        Map<TermLocal, Integer> delta = new TreeMap<>();
+        SpanishTokenizer.terms(comentario).forEach(term -> delta.put(new TermLocal(term, localId), -1));
+        write(reviewId, delta);
+    }
+
+    /**
+     * Indexa un bloque de reseñas nuevas con un solo batch (importaciones).
+     */
+    public void index(Collection<ReviewText> reviews) {
+        write(null, count(reviews));
+    }
+
+    /**
+     * Locales cuyas reseñas mencionan todos los términos de {@code query}, ordenados por
+     * número de menciones ponderado por la valoración (un 5 cuenta el doble que un 0;
+     * los locales sin valoración cuentan como un 3).
+     */
+    public List<DishPlace> search(String query, int limit) {
+        List<String> terms = SpanishTokenizer.terms(query).stream().limit(MAX_QUERY_TERMS).toList();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("La búsqueda no contiene ningún plato");
+        }
+        String placeholders = String.join(", ", Collections.nCopies(terms.size(), "?"));
+        String sql = "SELECT d.local_id, SUM(d.mention_count) AS mentions "
+            + "FROM dish_mentions d JOIN locales l ON l.id = d.local_id "
+            + "WHERE d.term IN (" + placeholders + ") "
+            + "GROUP BY d.local_id, l.rating "
+            + "HAVING COUNT(*) = ? "
+            + "ORDER BY SUM(d.mention_count) * (0.5 + COALESCE(l.rating, 3) / 10) DESC, d.local_id "
+            + "LIMIT ?";
+        List<Object> args = new ArrayList<>(terms);
+        args.add(terms.size());
+        args.add(limit);
+        Map<Long, Long> mentions = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            mentions.put(rs.getLong(1), rs.getLong(2));
+        }, args.toArray());
+        if (mentions.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LocalEntity> locals = localRepository.findAllById(mentions.keySet()).stream()
+            .collect(Collectors.toMap(LocalEntity::getId, Function.identity()));
+        List<DishPlace> out = new ArrayList<>(mentions.size());
+        mentions.forEach((localId, count) -> {
+            LocalEntity local = locals.get(localId);
+            if (local != null) {
+                out.add(new DishPlace(LocalSummary.of(local), count));
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Rehace el índice desde cero sin dejar de servir el actual.
+     *
+     * Se construye en una tabla aparte (dish_mentions_rebuild) recorriendo resenas por bloques
+     * de id hasta el MAX(id) leído al empezar, y al terminar se intercambia con la buena con un
+     * RENAME TABLE atómico; mientras tanto las búsquedas siguen usando el índice completo anterior.
+     * Las escrituras de reseñas siguen yendo a dish_mentions y, tras su commit, se apuntan en
+     * pendingDeltas. Antes de cada bloque y antes del intercambio se pasan a la tabla nueva las de
+     * reseñas posteriores a MAX(id) o ya recorridas; las de reseñas aún no recorridas se descartan,
+     * porque el recorrido leerá su estado final. Así ni se cuentan dos veces ni se resta lo que la
+     * tabla nueva aún no tiene. Queda una ventana mínima (una reseña del bloque que se está leyendo
+     * cuyo commit coincide con la lectura) que se corrige en la siguiente reconstrucción.
+     */
+    @Async("backgroundExecutor")
+    public void rebuild() {
+        runRebuild();
+    }
+
+    private void runRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM resenas", Long.class);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + STAGING_TABLE + " LIKE " + TABLE);
+            jdbcTemplate.execute("TRUNCATE TABLE " + STAGING_TABLE);
+            Rebuild rebuild = new Rebuild(maxId != null ? maxId : 0);
+            pendingDeltas.clear();
+            activeRebuild = rebuild;
+
+            long indexed = 0;
+            while (rebuild.scannedUpTo < rebuild.maxId) {
+                applyPending(rebuild);
+                List<ReviewText> chunk = new ArrayList<>(REBUILD_CHUNK);
+                long[] lastId = { rebuild.scannedUpTo };
+                jdbcTemplate.query("SELECT id, local_id, comentario FROM resenas WHERE id > ? AND id <= ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        lastId[0] = rs.getLong(1);
+                        chunk.add(new ReviewText(rs.getLong(2), rs.getString(3)));
+                    },
+                    rebuild.scannedUpTo, rebuild.maxId, REBUILD_CHUNK);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                transactionTemplate.executeWithoutResult(status -> apply(STAGING_TABLE, count(chunk)));
+                indexed += chunk.size();
+                rebuild.scannedUpTo = lastId[0];
+            }
+            rebuild.scannedUpTo = rebuild.maxId;
+            applyPending(rebuild);
+            jdbcTemplate.execute("RENAME TABLE " + TABLE + " TO " + OLD_TABLE + ", "
+                + STAGING_TABLE + " TO " + TABLE + ", " + OLD_TABLE + " TO " + STAGING_TABLE);
+            activeRebuild = null;
+            jdbcTemplate.execute("TRUNCATE TABLE " + STAGING_TABLE);
+            System.out.println("🍽️ Índice de platos reconstruido con " + indexed + " reseñas");
+        } catch (RuntimeException e) {
+            System.err.println("❌ Error reconstruyendo el índice de platos: " + e.getMessage());
+        } finally {
+            activeRebuild = null;
+            pendingDeltas.clear();
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Las reseñas anteriores al índice se indexan una vez al arrancar si la tabla está vacía.
+     * Es asíncrono en sí mismo: una llamada a this.rebuild() no pasaría por el proxy de @Async
+     * y bloquearía el arranque mientras se recorren todas las reseñas.
+     */
+    @Async("backgroundExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            Integer indexed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM dish_mentions LIMIT 1) t", Integer.class);
+            Integer reviews = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM resenas LIMIT 1) t", Integer.class);
+            if (indexed != null && indexed == 0 && reviews != null && reviews > 0) {
+                runRebuild();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ No se pudo comprobar el índice de platos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica el cambio al índice en la transacción actual y, si hay una reconstrucción en
+     * marcha, lo apunta tras el commit para llevarlo también a la tabla nueva.
+     * {@code reviewId} null significa reseñas recién insertadas (importación).
+     */
+    private void write(Long reviewId, Map<TermLocal, Integer> delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        apply(TABLE, delta);
+        if (activeRebuild != null) {
+            TransactionHooks.afterCommit(() -> {
+                if (activeRebuild != null) {
+                    pendingDeltas.add(new PendingDelta(reviewId, delta));
+                }
+            });
+        }
+    }
+
+    private void applyPending(Rebuild rebuild) {
+        Map<TermLocal, Integer> merged = new TreeMap<>();
+        PendingDelta pending;
+        while ((pending = pendingDeltas.poll()) != null) {
+            if (rebuild.covers(pending.reviewId())) {
+                pending.delta().forEach((key, value) -> merged.merge(key, value, Integer::sum));
+            }
+        }
+        if (!merged.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> apply(STAGING_TABLE, merged));
+        }
+    }
+
+    private static Map<TermLocal, Integer> count(Collection<ReviewText> reviews) {
+        Map<TermLocal, Integer> counts = new TreeMap<>();
+        for (ReviewText review : reviews) {
+            for (String term : SpanishTokenizer.terms(review.comentario())) {
+                counts.merge(new TermLocal(term, review.localId()), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Suma los positivos y resta los negativos en {@code table}, en orden fijo (TreeMap) para
+     * que dos transacciones no bloqueen filas en orden distinto.
+     */
+    private void apply(String table, Map<TermLocal, Integer> delta) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> decrements = new ArrayList<>();
+        Set<Long> decrementedLocals = new TreeSet<>();
+        new TreeMap<>(delta).forEach((key, value) -> {
+            if (value > 0) {
+                upserts.add(new Object[] { key.term(), key.localId(), value });
+            } else if (value < 0) {
+                decrements.add(new Object[] { -value, key.term(), key.localId() });
+                decrementedLocals.add(key.localId());
+            }
+        });
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(UPSERT_SQL, table), upserts);
+        }
+        if (!decrements.isEmpty()) {
+            jdbcTemplate.batchUpdate(String.format(DECREMENT_SQL, table), decrements);
+            for (Long localId : decrementedLocals) {
+                jdbcTemplate.update(String.format(CLEANUP_SQL, table), localId);
+            }
+        }
+    }
+
+    /**
+     * Reconstrucción en curso: recorre ids hasta maxId; scannedUpTo es el último id ya indexado.
+     */
+    private static final class Rebuild {
+        private final long maxId;
+        private volatile long scannedUpTo;
+
+        Rebuild(long maxId) {
+            this.maxId = maxId;
+        }
+
+        /**
+         * El cambio de esta reseña no lo verá el recorrido, así que hay que llevarlo a la tabla nueva.
+         */
+        boolean covers(Long reviewId) {
+            return reviewId == null || reviewId > maxId || reviewId <= scannedUpTo;
+        }
+    }
+
+    private record PendingDelta(Long reviewId, Map<TermLocal, Integer> delta) {}
+
+    private record TermLocal(String term, Long localId) implements Comparable<TermLocal> {
+        @Override
+        public int compareTo(TermLocal other) {
+            int byTerm = term.compareTo(other.term);
+            return byTerm != 0 ? byTerm : localId.compareTo(other.localId);
+        }
+    }
+
+    public record ReviewText(Long localId, String comentario) {}
+
+    public record DishPlace(LocalSummary place, long mentions) {}
+}
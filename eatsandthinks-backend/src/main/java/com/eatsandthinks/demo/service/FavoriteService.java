@@ -17,14 +17,23 @@ public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final LocalRepository localRepository;
     private final GooglePlacesService googlePlacesService;
+    private final PlaceSummaryService placeSummaryService;
+    private final UserStatsService userStatsService;
+    private final TrendingService trendingService;
 
     @Autowired
     public FavoriteService(FavoriteRepository favoriteRepository, 
                           LocalRepository localRepository, 
-                          GooglePlacesService googlePlacesService) {
+                          GooglePlacesService googlePlacesService,
+                          PlaceSummaryService placeSummaryService,
+                          UserStatsService userStatsService,
+                          TrendingService trendingService) {
         this.favoriteRepository = favoriteRepository;
         this.localRepository = localRepository;
         this.googlePlacesService = googlePlacesService;
+        this.placeSummaryService = placeSummaryService;
+        this.userStatsService = userStatsService;
+        this.trendingService = trendingService;
     }
 
     /**
@@ -165,6 +174,9 @@ public class FavoriteService {
         
         try {
             Favorite saved = favoriteRepository.save(favorite);
+            placeSummaryService.onFavoriteAdded(local.getId());
+            userStatsService.onFavoriteAdded(userId);
+            trendingService.onFavoriteAdded(placeId);
             System.out.println("✅ Favorito guardado con ID: " + saved.getId());
             System.out.println("\n========================================");
             System.out.println("✅✅✅ FAVORITO AGREGADO EXITOSAMENTE ✅✅✅");
@@ -194,7 +206,11 @@ public class FavoriteService {
         }
         
         try {
-            favoriteRepository.deleteByUserIdAndLocalId(userId, local.getId());
+            long removed = favoriteRepository.deleteByUserIdAndLocalId(userId, local.getId());
+            if (removed > 0) {
+                placeSummaryService.onFavoriteRemoved(local.getId());
+                userStatsService.onFavoriteRemoved(userId);
+            }
             System.out.println("✅ Favorito eliminado correctamente");
         } catch (Exception e) {
             System.err.println("❌ Error eliminando favorito: " + e.getMessage());
@@ -0,0 +1,145 @@
+package com.eatsandthinks.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatsandthinks.demo.entity.Review;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+import com.eatsandthinks.demo.repository.ReviewVoteRepository;
+import com.eatsandthinks.demo.util.TransactionHooks;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Votos de "útil" en reseñas.
+ *
+ * Cada voto es una fila de review_votes (índice único reseña+usuario, un voto por usuario).
+ * El total no se actualiza voto a voto: tras el commit se suma a un LongAdder por reseña
+ * y un volcado periódico aplica los incrementos acumulados con un único batch
+ * sobre resenas.helpful_count, así una reseña muy votada no bloquea su fila en cada voto.
+ * El recuento publicado puede ir unos segundos por detrás.
+ */
+@Service
+public class HelpfulVoteService {
+
+    private static final String FLUSH_SQL = "UPDATE resenas SET helpful_count = GREATEST(helpful_count + ?, 0) WHERE id = ?";
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewVoteRepository reviewVoteRepository;
+    private final ReviewPageCache reviewPageCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public HelpfulVoteService(ReviewRepository reviewRepository,
+                              ReviewVoteRepository reviewVoteRepository,
+                              ReviewPageCache reviewPageCache,
+                              JdbcTemplate jdbcTemplate) {
+        this.reviewRepository = reviewRepository;
+        this.reviewVoteRepository = reviewVoteRepository;
+        this.reviewPageCache = reviewPageCache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Marca la reseña como útil. Votar dos veces no cuenta doble.
+     */
+    @Transactional
+    public HelpfulVoteResult vote(Long reviewId, Long userId) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new IllegalArgumentException("Reseña no encontrada"));
+        if (review.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("No puedes votar tu propia reseña");
+        }
+        int inserted = reviewVoteRepository.insertIfAbsent(reviewId, userId, LocalDateTime.now());
+        if (inserted > 0) {
+            TransactionHooks.afterCommit(() -> add(reviewId, 1));
+        }
+        return new HelpfulVoteResult(reviewId, true, estimate(review) + inserted);
+    }
+
+    /**
+     * Retira el voto del usuario, si lo tenía.
+     */
+    @Transactional
+    public HelpfulVoteResult unvote(Long reviewId, Long userId) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new IllegalArgumentException("Reseña no encontrada"));
+        long deleted = reviewVoteRepository.deleteByReviewIdAndUserId(reviewId, userId);
+        if (deleted > 0) {
+            TransactionHooks.afterCommit(() -> add(reviewId, -deleted));
+        }
+        return new HelpfulVoteResult(reviewId, false, Math.max(0, estimate(review) - deleted));
+    }
+
+    /**
+     * Aplica los incrementos acumulados en un batch (ordenado por id para que dos volcados
+     * nunca bloqueen filas en orden distinto) e invalida las páginas cacheadas de esos locales.
+     * Si falla, los incrementos vuelven a la cola para el siguiente volcado.
+     */
+    @Scheduled(fixedDelayString = "${app.helpful.flush-ms:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta == 0 && pending.remove(entry.getKey(), adder)) {
+                // Lo que llegara entre la lectura y la retirada también es nuestro
+                delta = adder.sumThenReset();
+            }
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        deltas.forEach((reviewId, delta) -> batch.add(new Object[] { delta, reviewId }));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            deltas.forEach(this::add);
+            System.err.println("❌ Error guardando votos útiles: " + e.getMessage());
+            return;
+        }
+        reviewPageCache.invalidatePlaces(reviewRepository.findPlaceIdsByReviewIds(deltas.keySet()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Suma al contador de la reseña. Si el volcado retiró el contador mientras tanto,
+     * se recupera lo que no llegó a leer y se reintenta sobre uno nuevo: cada unidad
+     * la reclama exactamente uno de los dos (sumThenReset vacía cada celda de forma atómica).
+     */
+    private void add(Long reviewId, long delta) {
+        while (delta != 0) {
+            LongAdder adder = pending.computeIfAbsent(reviewId, id -> new LongAdder());
+            adder.add(delta);
+            if (pending.get(reviewId) == adder) {
+                return;
+            }
+            delta = adder.sumThenReset();
+        }
+    }
+
+    private long estimate(Review review) {
+        LongAdder adder = pending.get(review.getId());
+        return review.getHelpfulCount() + (adder != null ? adder.sum() : 0);
+    }
+
+    public record HelpfulVoteResult(Long reviewId, boolean helpful, long helpfulCount) {}
+}
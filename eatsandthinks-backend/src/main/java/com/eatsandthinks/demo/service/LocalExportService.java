@@ -0,0 +1,95 @@
+package com.eatsandthinks.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class LocalExportService {
+
+    // Cada cuántas filas se vacía el contexto de persistencia y se hace flush de la salida
+    private static final int CLEAR_EVERY = 500;
+    private static final byte NEWLINE = '\n';
+
+    private final LocalRepository localRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public LocalExportService(LocalRepository localRepository, EntityManager entityManager) {
+        this.localRepository = localRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Escribe todos los locales como NDJSON (un objeto JSON por línea).
+     * Las filas se leen con un cursor y se descartan del EntityManager a medida
+     * que se escriben, de modo que la memoria usada no depende del tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<LocalEntity> locales = localRepository.streamAll()) {
+            var iterator = locales.iterator();
+            while (iterator.hasNext()) {
+                LocalEntity local = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(toRow(local)));
+                out.write(NEWLINE);
+                entityManager.detach(local);
+                written++;
+                if (written % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        System.out.println("📤 Exportados " + written + " locales (NDJSON)");
+        return written;
+    }
+
+    private LocalExportRow toRow(LocalEntity e) {
+        return new LocalExportRow(
+            e.getId(),
+            e.getPlaceId(),
+            e.getNombre(),
+            e.getDireccion(),
+            e.getLatitud(),
+            e.getLongitud(),
+            e.getRating(),
+            e.getTotalValoraciones(),
+            e.getPrecioNivel(),
+            e.getFotoRef(),
+            e.getTipo(),
+            e.getAbierto(),
+            e.getSource() != null ? e.getSource().name() : null,
+            e.getCreatedAt() != null ? e.getCreatedAt().toString() : null
+        );
+    }
+
+    public record LocalExportRow(
+        Long id,
+        String placeId,
+        String name,
+        String formattedAddress,
+        Double lat,
+        Double lng,
+        Double rating,
+        Integer userRatingsTotal,
+        Integer priceLevel,
+        String photoRef,
+        String type,
+        Boolean openNow,
+        String source,
+        String createdAt
+    ) {}
+}
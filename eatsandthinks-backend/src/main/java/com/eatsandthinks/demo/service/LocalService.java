@@ -3,12 +3,16 @@ package com.eatsandthinks.demo.service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
 import com.eatsandthinks.demo.entity.LocalEntity;
 import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.LocalSearchFilter;
+import com.eatsandthinks.demo.repository.LocalSpecifications;
+import com.eatsandthinks.demo.util.CuisineIndex;
 
 @Service
 public class LocalService {
@@ -54,19 +58,45 @@ public class LocalService {
      * Busca locales combinando resultados de Google y la BD local
      */
     public List<LocalDTO> getCombined(String query) {
+        return getCombined(query, LocalSearchFilter.of(query, null, null, null, null));
+    }
+
+    /**
+     * Igual que getCombined(query), pero aplicando filtros.
+     * Los filtros sobre la BD local se ejecutan en SQL; los de Google, sobre los resultados recibidos.
+     */
+    public List<LocalDTO> getCombined(String query, LocalSearchFilter filter) {
         List<LocalDTO> out = new ArrayList<>();
 
         // Google
         List<GooglePlacesService.GooglePlace> gplaces = google.searchPlaces(query);
-        out.addAll(gplaces.stream().map(this::fromGoogle).collect(Collectors.toList()));
+        Predicate<String> cuisineFilter = CuisineIndex.compile(String.join(",", filter.cuisineTypes()));
+        out.addAll(gplaces.stream()
+                .filter(g -> matchesGoogle(g, filter, cuisineFilter))
+                .map(this::fromGoogle)
+                .collect(Collectors.toList()));
 
         // Local DB (user-created)
-        List<LocalEntity> locals = localRepo.findAll();
+        List<LocalEntity> locals = localRepo.findAll(LocalSpecifications.matching(filter));
         out.addAll(locals.stream().map(this::fromEntityToDTO).collect(Collectors.toList()));
 
         return out;
     }
 
+    private boolean matchesGoogle(GooglePlacesService.GooglePlace g, LocalSearchFilter filter,
+                                  Predicate<String> cuisineFilter) {
+        if (filter.minRating() != null && (g.rating == null || g.rating < filter.minRating())) {
+            return false;
+        }
+        if (!filter.priceLevels().isEmpty() && (g.priceLevel == null || !filter.priceLevels().contains(g.priceLevel))) {
+            return false;
+        }
+        if (filter.openNowOnly() && !Boolean.TRUE.equals(g.openNow)) {
+            return false;
+        }
+        return cuisineFilter.test(g.type);
+    }
+
     private LocalDTO fromGoogle(GooglePlacesService.GooglePlace g) {
         LocalDTO d = new LocalDTO();
         d.setPlaceId(g.placeId);
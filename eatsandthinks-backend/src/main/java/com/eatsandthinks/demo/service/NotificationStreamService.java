@@ -0,0 +1,304 @@
+package com.eatsandthinks.demo.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.eatsandthinks.demo.service.ReviewReplyNotificationService.ReplyNotificationCreated;
+import com.eatsandthinks.demo.util.LruCache;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Canal SSE de notificaciones de respuestas, una o varias conexiones por usuario (una por pestaña).
+ *
+ * Las conexiones son asíncronas (SseEmitter), así que una conexión inactiva no ocupa ningún hilo:
+ * solo se usa un hilo del pool "streamExecutor" mientras hay eventos pendientes de enviar.
+ * Cada conexión tiene una cola acotada; si un cliente lento la llena, se vacía y se le envía
+ * "resync" para que recargue el listado por REST. Cada usuario guarda además sus últimos eventos
+ * para reenviarlos al reconectar con Last-Event-ID.
+ *
+ * El latido se envía por lotes de HEARTBEAT_BATCH conexiones, una tarea por lote, en lugar de
+ * una tarea por conexión. Si el executor está saturado, la tarea se rechaza: un lote de latido
+ * se salta hasta la siguiente pasada y una conexión con eventos pendientes se cierra (al
+ * reconectar recibe lo perdido por Last-Event-ID).
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final int BUFFER_SIZE = 32;
+    private static final int REPLAY_SIZE = 20;
+    private static final int MAX_REPLAY_USERS = 10_000;
+    private static final int MAX_STREAMS_PER_USER = 5;
+    private static final int HEARTBEAT_BATCH = 500;
+
+    private final Executor streamExecutor;
+    private final long timeoutMs;
+    private final Map<Long, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final LruCache<Long, Replay> replays = new LruCache<>(MAX_REPLAY_USERS);
+    // Arranca en el reloj para que los ids sigan creciendo tras un reinicio
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    public NotificationStreamService(@Qualifier("streamExecutor") Executor streamExecutor,
+                                     @Value("${app.notifications.stream-timeout-ms:1800000}") long timeoutMs) {
+        this.streamExecutor = streamExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Abre una conexión: envía el contador de no leídas y, si el cliente reconecta,
+     * los eventos posteriores a lastEventId (o "resync" si ya no se conservan).
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId, long unread) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Stream stream = new Stream(userId, emitter);
+        List<Stream> evicted = new ArrayList<>(1);
+        streams.compute(userId, (id, list) -> {
+            List<Stream> current = list != null ? list : new CopyOnWriteArrayList<>();
+            current.add(stream);
+            if (current.size() > MAX_STREAMS_PER_USER) {
+                evicted.add(current.get(0));
+            }
+            return current;
+        });
+        evicted.forEach(Stream::close);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(stream::close);
+        emitter.onError(e -> remove(stream));
+
+        stream.offer(new StreamEvent(0, "unread", Map.of("unread", unread)));
+        if (lastEventId != null) {
+            Replay replay = replays.get(userId);
+            List<StreamEvent> missed = replay != null ? replay.since(lastEventId) : null;
+            if (missed == null) {
+                stream.offer(StreamEvent.RESYNC);
+            } else {
+                missed.forEach(stream::offer);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Se ejecuta tras el commit de la respuesta; fuera de transacción, en el momento.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReplyNotification(ReplyNotificationCreated event) {
+        if (event.userId() == null) {
+            return;
+        }
+        StreamEvent streamEvent = new StreamEvent(sequence.incrementAndGet(), "reply-notification", event.notification());
+        Replay replay;
+        synchronized (replays) {
+            replay = replays.get(event.userId());
+            if (replay == null) {
+                replay = new Replay(streamEvent.id() - 1);
+                replays.put(event.userId(), replay);
+            }
+        }
+        replay.add(streamEvent);
+        List<Stream> targets = streams.get(event.userId());
+        if (targets != null) {
+            targets.forEach(stream -> stream.offer(streamEvent));
+        }
+    }
+
+    /**
+     * Comentario SSE periódico para que proxies y balanceadores no cierren las conexiones inactivas
+     * y para detectar los clientes que ya no están.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stream-heartbeat-ms:25000}")
+    public void heartbeat() {
+        List<Stream> batch = new ArrayList<>(HEARTBEAT_BATCH);
+        for (List<Stream> list : streams.values()) {
+            for (Stream stream : list) {
+                batch.add(stream);
+                if (batch.size() == HEARTBEAT_BATCH) {
+                    submitHeartbeats(batch);
+                    batch = new ArrayList<>(HEARTBEAT_BATCH);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            submitHeartbeats(batch);
+        }
+    }
+
+    private void submitHeartbeats(List<Stream> batch) {
+        try {
+            streamExecutor.execute(() -> batch.forEach(Stream::heartbeat));
+        } catch (RejectedExecutionException e) {
+            // Executor saturado: estas conexiones recibirán el latido en la siguiente pasada
+        }
+    }
+
+    public int openStreams() {
+        return streams.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        streams.values().forEach(list -> list.forEach(Stream::close));
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, list) -> {
+            list.remove(stream);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Conexión abierta con su cola de envíos pendientes. Como mucho una tarea de envío
+     * por conexión en el executor a la vez.
+     */
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<StreamEvent> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(StreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= BUFFER_SIZE) {
+                    // Cliente demasiado lento: se descarta lo pendiente y recargará por REST
+                    pending.clear();
+                    pending.add(StreamEvent.RESYNC);
+                }
+                pending.add(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Sin hueco para enviar: el cliente reconectará y recuperará lo perdido
+                close();
+            }
+        }
+
+        /**
+         * Se ejecuta ya en un hilo del executor, dentro del lote de latidos. Solo se envía si la
+         * conexión está parada; si tiene eventos en cola, esos envíos ya la mantienen viva.
+         */
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || draining || !pending.isEmpty()) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                emitter.send(StreamEvent.HEARTBEAT.toSse());
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            // Eventos que llegaron durante el envío (offer no lanzó tarea porque draining era true)
+            drain();
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // Ya cerrado por el contenedor
+            }
+        }
+    }
+
+    /**
+     * Últimos REPLAY_SIZE eventos de un usuario. floor es el id más alto que ya no se conserva:
+     * si el cliente viene de antes de ese id, se ha perdido algo y debe recargar.
+     */
+    private static final class Replay {
+        private final ArrayDeque<StreamEvent> events = new ArrayDeque<>(REPLAY_SIZE);
+        private long floor;
+
+        Replay(long floor) {
+            this.floor = floor;
+        }
+
+        synchronized void add(StreamEvent event) {
+            if (events.size() == REPLAY_SIZE) {
+                floor = events.poll().id();
+            }
+            events.add(event);
+        }
+
+        synchronized List<StreamEvent> since(long lastEventId) {
+            if (lastEventId < floor) {
+                return null;
+            }
+            return events.stream().filter(e -> e.id() > lastEventId).toList();
+        }
+    }
+
+    private record StreamEvent(long id, String name, Object data) {
+        static final StreamEvent RESYNC = new StreamEvent(0, "resync", Map.of());
+        static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (data == null) {
+                return builder.comment("hb");
+            }
+            if (id > 0) {
+                builder.id(Long.toString(id));
+            }
+            return builder.name(name).data(data);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.eatsandthinks.demo.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatsandthinks.demo.entity.PlaceSummary;
+import com.eatsandthinks.demo.repository.PlaceSummaryRepository;
+import com.eatsandthinks.demo.util.LruCache;
+import com.eatsandthinks.demo.util.RangeBackfill;
+import com.eatsandthinks.demo.util.TransactionHooks;
+import com.eatsandthinks.demo.util.VersionedLruCache;
+
+/**
+ * Mantiene y sirve el modelo de lectura place_summary.
+ *
+ * Las escrituras aplican incrementos atómicos en SQL dentro de la transacción del llamante.
+ * Si la fila aún no existe, antes del incremento se siembra en una transacción aparte
+ * (READ COMMITTED, confirmada al momento) con los datos ya confirmados, que no incluyen la
+ * escritura en curso; así el incremento se aplica siempre y nunca se cuenta dos veces.
+ * Al arrancar se siembran en segundo plano los locales que aún no tienen fila, para que esa
+ * transacción aparte (que ocupa una segunda conexión) solo haga falta con locales nuevos.
+ * Las lecturas no escriben: los locales sin fila se calculan desde las tablas de origen.
+ * Todo pasa por una caché LRU versionada que se invalida al confirmar.
+ */
+@Service
+public class PlaceSummaryService {
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("Europe/Madrid");
+    private static final int CACHE_SIZE = 5000;
+    private static final long BACKFILL_RANGE = 1000;
+
+    private final PlaceSummaryRepository placeSummaryRepository;
+    private final TransactionTemplate seedTransaction;
+    private final VersionedLruCache<Long, PlaceSummaryDTO> cache = new VersionedLruCache<>(CACHE_SIZE);
+    private final LruCache<String, Long> localIdByPlaceId = new LruCache<>(CACHE_SIZE);
+    // placeIds sin local en la BD; se vacía cuando se siembra un local nuevo
+    private final LruCache<String, Boolean> unknownPlaceIds = new LruCache<>(CACHE_SIZE);
+
+    public PlaceSummaryService(PlaceSummaryRepository placeSummaryRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.placeSummaryRepository = placeSummaryRepository;
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.seedTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public void onReviewCreated(Long localId, int puntuacion) {
+        applyReviewDelta(localId, puntuacion, 0);
+    }
+
+    public void onReviewUpdated(Long localId, int oldPuntuacion, int newPuntuacion) {
+        if (oldPuntuacion != newPuntuacion) {
+            applyReviewDelta(localId, newPuntuacion, oldPuntuacion);
+        }
+    }
+
+    public void onReviewDeleted(Long localId, int puntuacion, long replies) {
+        applyReviewDelta(localId, 0, puntuacion);
+        if (replies > 0) {
+            onReplyDelta(localId, -replies);
+        }
+    }
+
+    public void onReplyCreated(Long localId) {
+        onReplyDelta(localId, 1);
+    }
+
+    public void onFavoriteAdded(Long localId) {
+        apply(localId, () -> placeSummaryRepository.applyFavoriteDelta(localId, 1, now()));
+    }
+
+    public void onFavoriteRemoved(Long localId) {
+        apply(localId, () -> placeSummaryRepository.applyFavoriteDelta(localId, -1, now()));
+    }
+
+    /**
+     * Reconstruye desde cero las filas de los locales indicados a partir de las tablas de origen.
+     * Lo usan las cargas masivas, que insertan sin pasar por los incrementos.
+     */
+    @Transactional
+    public void rebuild(Collection<Long> localIds) {
+        if (localIds.isEmpty()) {
+            return;
+        }
+        placeSummaryRepository.deleteByLocalIds(localIds);
+        placeSummaryRepository.seedByLocalIds(localIds);
+        localIds.forEach(this::evictAfterCommit);
+        TransactionHooks.afterCommit(unknownPlaceIds::clear);
+    }
+
+    /**
+     * Crea las filas que falten por rangos de id, cada rango en su propia transacción corta.
+     */
+    @Async("backgroundExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissingOnStartup() {
+        try {
+            Long maxId = placeSummaryRepository.findMaxLocalId();
+            if (maxId == null) {
+                return;
+            }
+            long seeded = RangeBackfill.run(seedTransaction, maxId, BACKFILL_RANGE,
+                placeSummaryRepository::seedMissingInRange);
+            if (seeded > 0) {
+                unknownPlaceIds.clear();
+                System.out.println("📊 place_summary sembrado para " + seeded + " locales");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ No se pudo sembrar place_summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve las estadísticas de varios locales con consultas por IN para los que no estén
+     * en caché. No escribe: los locales sin fila se calculan al vuelo y los placeIds que no
+     * existen se recuerdan para no consultarlos en cada petición.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, PlaceSummaryDTO> getSummaries(Collection<String> placeIds) {
+        Map<String, PlaceSummaryDTO> out = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        Map<Long, String> missing = new LinkedHashMap<>();
+        for (String placeId : new LinkedHashSet<>(placeIds)) {
+            if (placeId == null || unknownPlaceIds.get(placeId) != null) {
+                continue;
+            }
+            Long localId = localIdByPlaceId.get(placeId);
+            PlaceSummaryDTO cached = localId != null ? cache.get(localId) : null;
+            if (cached != null) {
+                out.put(placeId, cached);
+            } else if (localId != null) {
+                missing.put(localId, placeId);
+            } else {
+                unresolved.add(placeId);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            Map<String, Long> resolved = new HashMap<>();
+            for (Object[] row : placeSummaryRepository.findLocalIdsByPlaceIds(unresolved)) {
+                resolved.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            for (String placeId : unresolved) {
+                Long localId = resolved.get(placeId);
+                if (localId == null) {
+                    unknownPlaceIds.put(placeId, Boolean.TRUE);
+                } else {
+                    localIdByPlaceId.put(placeId, localId);
+                    missing.put(localId, placeId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return out;
+        }
+
+        // Versiones tomadas antes de leer: si una escritura confirma entretanto, no se cachea
+        Map<Long, VersionedLruCache.Stamp<Long, PlaceSummaryDTO>> stamps = new HashMap<>();
+        missing.keySet().forEach(localId -> stamps.put(localId, cache.stamp(localId)));
+
+        Map<Long, PlaceSummaryDTO> loaded = new HashMap<>();
+        for (PlaceSummary row : placeSummaryRepository.findAllById(missing.keySet())) {
+            loaded.put(row.getLocalId(), toDto(row));
+        }
+        if (loaded.size() < missing.size()) {
+            List<Long> withoutRow = missing.keySet().stream().filter(id -> !loaded.containsKey(id)).toList();
+            for (Object[] row : placeSummaryRepository.computeByLocalIds(withoutRow)) {
+                PlaceSummaryDTO dto = toDto(row);
+                loaded.put(((Number) row[0]).longValue(), dto);
+            }
+        }
+        for (Map.Entry<Long, String> entry : missing.entrySet()) {
+            PlaceSummaryDTO dto = loaded.get(entry.getKey());
+            if (dto != null) {
+                cache.storeIf(stamps.get(entry.getKey()), dto);
+                out.put(entry.getValue(), dto);
+            }
+        }
+        return out;
+    }
+
+    public PlaceSummaryDTO getSummary(String placeId) {
+        return getSummaries(List.of(placeId)).get(placeId);
+    }
+
+    private void applyReviewDelta(Long localId, int added, int removed) {
+        apply(localId, () -> placeSummaryRepository.applyReviewDelta(localId, added, removed, now()));
+    }
+
+    private void onReplyDelta(Long localId, long delta) {
+        apply(localId, () -> placeSummaryRepository.applyReplyDelta(localId, delta, now()));
+    }
+
+    /**
+     * Garantiza la fila y después aplica el incremento en la transacción del llamante.
+     */
+    private void apply(Long localId, IntSupplier delta) {
+        if (localId == null) {
+            return;
+        }
+        ensureRow(localId);
+        delta.getAsInt();
+        evictAfterCommit(localId);
+    }
+
+    /**
+     * Siembra la fila en una transacción propia si no existe. La siembra solo ve datos confirmados:
+     * cualquier escritura aún abierta (la del llamante o una concurrente) aplica su propio incremento
+     * después sobre la fila ya creada. Si dos siembras coinciden, INSERT IGNORE deja solo una.
+     * Si el local se acaba de crear en esta transacción, la siembra no lo ve: se crea a cero aquí.
+     */
+    private void ensureRow(Long localId) {
+        if (placeSummaryRepository.existsById(localId)) {
+            return;
+        }
+        SeedResult result = seedTransaction.execute(status -> {
+            if (placeSummaryRepository.existsById(localId)) {
+                return SeedResult.EXISTS;
+            }
+            if (placeSummaryRepository.seed(localId) > 0) {
+                return SeedResult.SEEDED;
+            }
+            // Otra siembra ganó (ya confirmada) o el local aún no es visible fuera de esta transacción
+            return placeSummaryRepository.existsById(localId) ? SeedResult.EXISTS : SeedResult.NOT_VISIBLE;
+        });
+        if (result == SeedResult.SEEDED) {
+            unknownPlaceIds.clear();
+        } else if (result == SeedResult.NOT_VISIBLE) {
+            placeSummaryRepository.insertEmpty(localId);
+        }
+    }
+
+    private void evictAfterCommit(Long localId) {
+        TransactionHooks.afterCommit(() -> cache.invalidate(localId));
+    }
+
+    private PlaceSummaryDTO toDto(PlaceSummary s) {
+        Double avg = s.getReviewCount() > 0 ? (double) s.getRatingSum() / s.getReviewCount() : null;
+        return new PlaceSummaryDTO(
+            s.getPlaceId(),
+            s.getReviewCount(),
+            avg,
+            List.of(s.getStar1(), s.getStar2(), s.getStar3(), s.getStar4(), s.getStar5()),
+            s.getFavoriteCount(),
+            s.getReplyCount(),
+            s.getLastActivityAt()
+        );
+    }
+
+    /**
+     * Fila de computeByLocalIds (mismas columnas que la siembra; la fecha de actividad no se conoce).
+     */
+    private static PlaceSummaryDTO toDto(Object[] row) {
+        long reviewCount = ((Number) row[2]).longValue();
+        long ratingSum = ((Number) row[3]).longValue();
+        return new PlaceSummaryDTO(
+            (String) row[1],
+            reviewCount,
+            reviewCount > 0 ? (double) ratingSum / reviewCount : null,
+            List.of(((Number) row[4]).longValue(), ((Number) row[5]).longValue(), ((Number) row[6]).longValue(),
+                ((Number) row[7]).longValue(), ((Number) row[8]).longValue()),
+            ((Number) row[9]).longValue(),
+            ((Number) row[10]).longValue(),
+            null
+        );
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(DEFAULT_ZONE);
+    }
+
+    private enum SeedResult { EXISTS, SEEDED, NOT_VISIBLE }
+
+    public record PlaceSummaryDTO(
+        String placeId,
+        long reviewCount,
+        Double avgRating,
+        List<Long> starCounts,
+        long favoriteCount,
+        long replyCount,
+        LocalDateTime lastActivityAt
+    ) {
+        public static PlaceSummaryDTO empty(String placeId) {
+            return new PlaceSummaryDTO(placeId, 0, null, List.of(0L, 0L, 0L, 0L, 0L), 0, 0, null);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.eatsandthinks.demo.service.PlaceSummaryService.PlaceSummaryDTO;
+
+/**
+ * Etapa de ranking común a las búsquedas.
+ *
+ * La puntuación combina el rating suavizado con una media bayesiana
+ * (así un 5.0 con 2 valoraciones no supera a un 4.7 con 3.000), la distancia
+ * al usuario, si está abierto ahora y nuestras propias reseñas.
+ * Solo se seleccionan los K mejores con un heap acotado, sin ordenar toda la lista.
+ */
+@Service
+public class RankingService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final PlaceSummaryService placeSummaryService;
+
+    @Value("${app.ranking.prior-mean:3.8}")
+    private double priorMean;
+
+    @Value("${app.ranking.prior-weight:50}")
+    private double priorWeight;
+
+    @Value("${app.ranking.own-prior-weight:5}")
+    private double ownPriorWeight;
+
+    @Value("${app.ranking.distance-scale-km:3}")
+    private double distanceScaleKm;
+
+    @Value("${app.ranking.weight.rating:0.6}")
+    private double ratingWeight;
+
+    @Value("${app.ranking.weight.distance:0.2}")
+    private double distanceWeight;
+
+    @Value("${app.ranking.weight.open:0.1}")
+    private double openWeight;
+
+    @Value("${app.ranking.weight.own-reviews:0.1}")
+    private double ownReviewsWeight;
+
+    public RankingService(PlaceSummaryService placeSummaryService) {
+        this.placeSummaryService = placeSummaryService;
+    }
+
+    /**
+     * Devuelve los {@code k} mejores elementos ordenados de mayor a menor puntuación.
+     * Si {@code k <= 0} se devuelven todos.
+     */
+    public <T> List<Ranked<T>> rank(List<T> items, Function<T, RankFeatures> features, RankingContext context, int k) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        int limit = k <= 0 ? items.size() : Math.min(k, items.size());
+        Map<String, PlaceSummaryDTO> ownStats = loadOwnStats(items, features);
+
+        // Min-heap con los K mejores vistos hasta ahora; en empate gana el que llegó antes
+        Comparator<Candidate<T>> worstFirst = Comparator
+            .comparingDouble((Candidate<T> c) -> c.breakdown().total())
+            .thenComparing(Comparator.comparingInt((Candidate<T> c) -> c.position()).reversed());
+        PriorityQueue<Candidate<T>> heap = new PriorityQueue<>(limit, worstFirst);
+
+        int position = 0;
+        for (T item : items) {
+            RankFeatures f = features.apply(item);
+            ScoreBreakdown breakdown = score(f, ownStats.get(f.placeId()), context);
+            Candidate<T> candidate = new Candidate<>(item, breakdown, position++);
+            if (heap.size() < limit) {
+                heap.offer(candidate);
+            } else if (worstFirst.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        }
+
+        List<Candidate<T>> best = new ArrayList<>(heap);
+        best.sort(worstFirst.reversed());
+        List<Ranked<T>> out = new ArrayList<>(best.size());
+        for (Candidate<T> c : best) {
+            out.add(new Ranked<>(c.item(), c.breakdown().total(), context.debug() ? c.breakdown() : null));
+        }
+        return out;
+    }
+
+    /**
+     * Atajo para los endpoints: devuelve solo los elementos, o los elementos con su
+     * desglose de puntuación si la petición está en modo debug.
+     */
+    public <T> List<?> rankForResponse(List<T> items, Function<T, RankFeatures> features, RankingContext context, int k) {
+        List<Ranked<T>> ranked = rank(items, features, context, k);
+        if (context.debug()) {
+            return ranked;
+        }
+        return ranked.stream().map(Ranked::item).toList();
+    }
+
+    private ScoreBreakdown score(RankFeatures f, PlaceSummaryDTO own, RankingContext context) {
+        double votes = f.ratingCount() != null ? Math.max(0, f.ratingCount()) : 0;
+        double rating = f.rating() != null ? f.rating() : priorMean;
+        double bayesian = (priorWeight * priorMean + votes * rating) / (priorWeight + votes);
+        double ratingScore = bayesian / 5.0;
+
+        Double distanceKm = null;
+        double distanceScore = 0;
+        if (context.hasLocation() && f.lat() != null && f.lng() != null) {
+            distanceKm = haversineKm(context.userLat(), context.userLng(), f.lat(), f.lng());
+            distanceScore = Math.exp(-distanceKm / distanceScaleKm);
+        }
+
+        double openScore = Boolean.TRUE.equals(f.openNow()) ? 1 : 0;
+
+        // Desviación respecto a la media a priori, amortiguada por el número de reseñas propias
+        double ownScore = 0;
+        if (own != null && own.reviewCount() > 0 && own.avgRating() != null) {
+            double n = own.reviewCount();
+            double ownBayesian = (ownPriorWeight * priorMean + n * own.avgRating()) / (ownPriorWeight + n);
+            ownScore = (ownBayesian - priorMean) / 4.0;
+        }
+
+        double total = ratingWeight * ratingScore
+            + distanceWeight * distanceScore
+            + openWeight * openScore
+            + ownReviewsWeight * ownScore;
+        return new ScoreBreakdown(bayesian, distanceKm, ratingScore, distanceScore, openScore, ownScore, total);
+    }
+
+    private <T> Map<String, PlaceSummaryDTO> loadOwnStats(List<T> items, Function<T, RankFeatures> features) {
+        List<String> placeIds = items.stream()
+            .map(features)
+            .map(RankFeatures::placeId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (placeIds.isEmpty()) {
+            return Map.of();
+        }
+        return placeSummaryService.getSummaries(placeIds);
+    }
+
+    private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private record Candidate<T>(T item, ScoreBreakdown breakdown, int position) {}
+
+    public record RankingContext(Double userLat, Double userLng, boolean debug) {
+        public boolean hasLocation() {
+            return userLat != null && userLng != null;
+        }
+    }
+
+    public record RankFeatures(
+        String placeId,
+        Double rating,
+        Integer ratingCount,
+        Double lat,
+        Double lng,
+        Boolean openNow
+    ) {
+        public static RankFeatures of(GooglePlacesService.GooglePlace g) {
+            return new RankFeatures(g.placeId, g.rating, g.userRatingsTotal, g.lat, g.lng, g.openNow);
+        }
+    }
+
+    public record ScoreBreakdown(
+        double bayesianRating,
+        Double distanceKm,
+        double ratingScore,
+        double distanceScore,
+        double openScore,
+        double ownReviewScore,
+        double total
+    ) {}
+
+    public record Ranked<T>(T item, double score, ScoreBreakdown breakdown) {}
+}
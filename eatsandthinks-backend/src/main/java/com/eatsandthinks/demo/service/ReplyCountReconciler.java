@@ -0,0 +1,112 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Corrige resenas.reply_count contra review_replies.
+ *
+ * Recorre la tabla por rangos de id. En cada rango, una lectura sin bloqueos (JOIN con el
+ * recuento agrupado) localiza las filas desviadas; después, en una transacción corta, se
+ * vuelven a contar solo esas reseñas con una lectura bloqueante (FOR SHARE) y se corrigen.
+ * El recuento de la primera lectura es una foto que una respuesta recién creada puede dejar
+ * vieja, así que nunca se escribe directamente: el FOR SHARE ve lo último confirmado y
+ * frena las respuestas nuevas de esas reseñas hasta el commit, en el mismo orden de bloqueo
+ * que ReviewReplyService (primero review_replies, luego resenas).
+ * Se ejecuta de madrugada y una vez al arrancar (así se rellena la columna la primera vez).
+ */
+@Service
+public class ReplyCountReconciler {
+
+    private static final long RANGE_SIZE = 5000;
+    private static final String CANDIDATES_SQL = "SELECT r.id FROM resenas r "
+        + "LEFT JOIN (SELECT review_id, COUNT(*) AS c FROM review_replies "
+        + "WHERE review_id BETWEEN ? AND ? GROUP BY review_id) x ON x.review_id = r.id "
+        + "WHERE r.id BETWEEN ? AND ? AND r.reply_count <> COALESCE(x.c, 0)";
+    private static final String FIX_SQL = "UPDATE resenas SET reply_count = ? WHERE id = ? AND reply_count <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewPageCache reviewPageCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReplyCountReconciler(JdbcTemplate jdbcTemplate,
+                                ReviewPageCache reviewPageCache,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reviewPageCache = reviewPageCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async("backgroundExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${app.reply-count.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM resenas", Long.class);
+            if (maxId == null) {
+                return;
+            }
+            long fixed = 0;
+            for (long from = 1; from <= maxId; from += RANGE_SIZE) {
+                long to = from + RANGE_SIZE - 1;
+                List<Long> candidates = jdbcTemplate.queryForList(CANDIDATES_SQL, Long.class, from, to, from, to);
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+                try {
+                    fixed += transactionTemplate.execute(status -> fix(candidates));
+                } catch (PessimisticLockingFailureException e) {
+                    // Choque con una respuesta en curso: el rango se revisa en la siguiente pasada
+                    System.err.println("⚠️ Rango " + from + "-" + to + " de reply_count aplazado: " + e.getMessage());
+                }
+            }
+            if (fixed > 0) {
+                reviewPageCache.invalidateAll();
+                System.out.println("🔧 reply_count corregido en " + fixed + " reseñas");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Error reconciliando reply_count: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recuenta las reseñas con bloqueo compartido y corrige las que sigan desviadas.
+     */
+    private int fix(List<Long> reviewIds) {
+        String placeholders = String.join(", ", Collections.nCopies(reviewIds.size(), "?"));
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT review_id, COUNT(*) FROM review_replies WHERE review_id IN (" + placeholders
+                + ") GROUP BY review_id FOR SHARE",
+            rs -> {
+                counts.put(rs.getLong(1), rs.getLong(2));
+            },
+            reviewIds.toArray());
+        List<Object[]> batch = new ArrayList<>(reviewIds.size());
+        for (Long reviewId : reviewIds) {
+            long count = counts.getOrDefault(reviewId, 0L);
+            batch.add(new Object[] { count, reviewId, count });
+        }
+        int fixed = 0;
+        for (int updated : jdbcTemplate.batchUpdate(FIX_SQL, batch)) {
+            fixed += Math.max(updated, 0);
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,211 @@
+package com.eatsandthinks.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.entity.Review;
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+import com.eatsandthinks.demo.repository.ReviewSearchFilter;
+import com.eatsandthinks.demo.repository.ReviewSpecifications;
+import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.repository.projection.AuthorSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Buscador y exportación de reseñas para moderadores.
+ * Las páginas usan paginación por clave sobre el id; la exportación recorre la tabla
+ * con un cursor y resuelve autores y locales por bloques, con memoria constante.
+ */
+@Service
+public class ReviewAdminService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final byte NEWLINE = '\n';
+    private static final String CSV_HEADER = "id,userId,author,localId,placeId,restaurantName,puntuacion,fecha,comentario\n";
+
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final LocalRepository localRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ReviewAdminService(ReviewRepository reviewRepository,
+                              UserRepository userRepository,
+                              LocalRepository localRepository,
+                              EntityManager entityManager) {
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.localRepository = localRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Página de reseñas de la más reciente a la más antigua. {@code cursor} es el id
+     * de la última reseña de la página anterior (null para la primera).
+     */
+    @Transactional(readOnly = true)
+    public AdminReviewPage search(ReviewSearchFilter filter, Long cursor, int limit) {
+        Specification<Review> spec = ReviewSpecifications.matching(filter);
+        if (cursor != null) {
+            spec = spec.and(ReviewSpecifications.idBefore(cursor));
+        }
+        List<Review> rows = reviewRepository.searchNewestFirst(spec, limit + 1);
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = String.valueOf(rows.get(limit - 1).getId());
+        }
+        return new AdminReviewPage(toRows(rows), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(ReviewSearchFilter filter, OutputStream out) throws IOException {
+        return export(filter, out, row -> {
+            byte[] json = objectMapper.writeValueAsBytes(row);
+            out.write(json);
+            out.write(NEWLINE);
+        }, "NDJSON");
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(ReviewSearchFilter filter, OutputStream out) throws IOException {
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        return export(filter, out, row -> out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8)), "CSV");
+    }
+
+    private long export(ReviewSearchFilter filter, OutputStream out, RowWriter writer, String format) throws IOException {
+        long written = 0;
+        List<Review> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Review> reviews = reviewRepository.streamMatching(ReviewSpecifications.matching(filter))) {
+            Iterator<Review> iterator = reviews.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (AdminReviewRow row : toRows(chunk)) {
+                        writer.write(row);
+                    }
+                    written += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        System.out.println("📤 Exportadas " + written + " reseñas (" + format + ")");
+        return written;
+    }
+
+    /**
+     * Convierte un bloque de reseñas resolviendo autores y locales con una consulta IN cada uno.
+     */
+    private List<AdminReviewRow> toRows(List<Review> reviews) {
+        if (reviews.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = reviews.stream()
+            .filter(r -> r.getAuthorName() == null)
+            .map(Review::getUserId)
+            .collect(Collectors.toSet());
+        Set<Long> localIds = reviews.stream().map(Review::getLocalId).collect(Collectors.toSet());
+        Map<Long, AuthorSummary> authors = userIds.isEmpty() ? Map.of() : userRepository.findAuthorsByIdIn(userIds).stream()
+            .collect(Collectors.toMap(AuthorSummary::id, Function.identity()));
+        Map<Long, LocalEntity> locals = localRepository.findAllById(localIds).stream()
+            .collect(Collectors.toMap(LocalEntity::getId, Function.identity()));
+
+        List<AdminReviewRow> rows = new ArrayList<>(reviews.size());
+        for (Review r : reviews) {
+            String authorName = r.getAuthorName() != null ? r.getAuthorName()
+                : authors.containsKey(r.getUserId()) ? authors.get(r.getUserId()).nombre() : null;
+            LocalEntity local = locals.get(r.getLocalId());
+            rows.add(new AdminReviewRow(
+                r.getId(),
+                r.getUserId(),
+                authorName,
+                r.getLocalId(),
+                local != null ? local.getPlaceId() : null,
+                local != null ? local.getNombre() : null,
+                r.getPuntuacion(),
+                r.getComentario(),
+                r.getFecha() != null ? r.getFecha().toString() : null
+            ));
+        }
+        return rows;
+    }
+
+    private static String toCsvLine(AdminReviewRow row) {
+        return String.join(",",
+            csv(row.id()),
+            csv(row.userId()),
+            csv(row.author()),
+            csv(row.localId()),
+            csv(row.placeId()),
+            csv(row.restaurantName()),
+            csv(row.puntuacion()),
+            csv(row.fecha()),
+            csv(row.comentario())) + "\n";
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!(value instanceof Number) && isFormulaLike(text)) {
+            // Evita que Excel/Sheets ejecuten el comentario o el nombre como fórmula
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static boolean isFormulaLike(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(AdminReviewRow row) throws IOException;
+    }
+
+    public record AdminReviewRow(
+        Long id,
+        Long userId,
+        String author,
+        Long localId,
+        String placeId,
+        String restaurantName,
+        Integer puntuacion,
+        String comentario,
+        String fecha
+    ) {}
+
+    public record AdminReviewPage(
+        List<AdminReviewRow> items,
+        String nextCursor
+    ) {}
+}
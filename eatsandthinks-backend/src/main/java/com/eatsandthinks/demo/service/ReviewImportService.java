@@ -0,0 +1,363 @@
+package com.eatsandthinks.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.repository.projection.AuthorSummary;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+import com.eatsandthinks.demo.repository.projection.UserSummary;
+import com.eatsandthinks.demo.util.CsvReader;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Importación masiva de reseñas (migraciones desde el sistema anterior, datos de prueba).
+ *
+ * Lee el fichero en streaming, agrupa las filas en bloques, resuelve locales y usuarios
+ * con una consulta IN por bloque e inserta con un batch JDBC por bloque, cada uno en su
+ * propia transacción. Los agregados (place_summary y rating de los locales) no se tocan
+ * fila a fila: se reconstruyen una sola vez al final para los locales afectados.
+ */
+@Service
+public class ReviewImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final String INSERT_SQL = "INSERT INTO resenas "
+        + "(user_id, local_id, puntuacion, comentario, fecha, author_name, author_avatar_url) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalRepository localRepository;
+    private final UserRepository userRepository;
+    private final PlaceSummaryService placeSummaryService;
+    private final UserStatsService userStatsService;
+    private final ReviewPageCache reviewPageCache;
+    private final DishIndexService dishIndexService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ReviewImportService(JdbcTemplate jdbcTemplate,
+                               LocalRepository localRepository,
+                               UserRepository userRepository,
+                               PlaceSummaryService placeSummaryService,
+                               UserStatsService userStatsService,
+                               ReviewPageCache reviewPageCache,
+                               DishIndexService dishIndexService,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localRepository = localRepository;
+        this.userRepository = userRepository;
+        this.placeSummaryService = placeSummaryService;
+        this.userStatsService = userStatsService;
+        this.reviewPageCache = reviewPageCache;
+        this.dishIndexService = dishIndexService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Una reseña por línea: {"placeId": "...", "userId": 1 | "userEmail": "...", "puntuacion": 4,
+     * "comentario": "...", "fecha": "2024-05-01T12:00:00"}
+     */
+    public ImportResult importNdjson(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(lineNumber, objectMapper.readValue(line, ImportRow.class));
+                } catch (IOException e) {
+                    run.unreadable(lineNumber, "JSON no válido");
+                }
+            }
+            return run.finish();
+        } finally {
+            run.abortIfUnfinished();
+        }
+    }
+
+    /**
+     * CSV con cabecera; columnas reconocidas: placeId, userId, userEmail, puntuacion, comentario, fecha.
+     */
+    public ImportResult importCsv(InputStream in) throws IOException {
+        ImportRun run = new ImportRun();
+        try {
+            return readCsv(in, run);
+        } finally {
+            run.abortIfUnfinished();
+        }
+    }
+
+    private ImportResult readCsv(InputStream in, ImportRun run) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("placeId") || !columns.containsKey("puntuacion")
+                || (!columns.containsKey("userId") && !columns.containsKey("userEmail"))) {
+            throw new IllegalArgumentException("La cabecera debe incluir placeId, puntuacion y userId o userEmail");
+        }
+        List<String> record;
+        long recordNumber = 1;
+        while ((record = reader.next()) != null) {
+            recordNumber++;
+            try {
+                String userId = field(record, columns, "userId");
+                String puntuacion = field(record, columns, "puntuacion");
+                run.add(recordNumber, new ImportRow(
+                    field(record, columns, "placeId"),
+                    userId != null ? Long.valueOf(userId) : null,
+                    field(record, columns, "userEmail"),
+                    puntuacion != null ? Integer.valueOf(puntuacion) : null,
+                    field(record, columns, "comentario"),
+                    field(record, columns, "fecha")));
+            } catch (NumberFormatException e) {
+                run.unreadable(recordNumber, "Número no válido");
+            }
+        }
+        return run.finish();
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Estado de una importación: bloque pendiente, locales afectados y contadores.
+     *
+     * Los bloques ya insertados quedan confirmados aunque la importación falle a medias
+     * (fichero cortado, error de BD...), así que los agregados de lo ya insertado se
+     * recalculan siempre: en finish() o, si no se llegó, en abortIfUnfinished().
+     */
+    private class ImportRun {
+        private final List<NumberedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final Set<Long> touchedLocalIds = new LinkedHashSet<>();
+        private final Set<Long> touchedUserIds = new LinkedHashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private long read;
+        private long inserted;
+        private long skipped;
+        private boolean aggregatesRebuilt;
+
+        void add(long line, ImportRow row) {
+            read++;
+            chunk.add(new NumberedRow(line, row));
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Fila que ni siquiera se pudo leer (JSON o números mal formados).
+         */
+        void unreadable(long line, String reason) {
+            read++;
+            reject(line, reason);
+        }
+
+        void reject(long line, String reason) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Línea " + line + ": " + reason);
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<String> placeIds = chunk.stream().map(r -> r.row().placeId())
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<Long> userIds = chunk.stream().map(r -> r.row().userId())
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<String> emails = chunk.stream()
+                .filter(r -> r.row().userId() == null && r.row().userEmail() != null)
+                .map(r -> r.row().userEmail()).collect(Collectors.toSet());
+
+            Map<String, Long> localIdByPlaceId = placeIds.isEmpty() ? Map.of()
+                : localRepository.findSummariesByPlaceIdIn(placeIds).stream()
+                    .collect(Collectors.toMap(LocalSummary::placeId, LocalSummary::id));
+            Map<Long, AuthorSummary> usersById = new HashMap<>();
+            if (!userIds.isEmpty()) {
+                userRepository.findAuthorsByIdIn(userIds).forEach(u -> usersById.put(u.id(), u));
+            }
+            Map<String, AuthorSummary> usersByEmail = new HashMap<>();
+            if (!emails.isEmpty()) {
+                for (UserSummary u : userRepository.findSummariesByEmailIn(emails)) {
+                    usersByEmail.put(u.email(), new AuthorSummary(u.id(), u.nombre(), u.profileImageUrl()));
+                }
+            }
+
+            List<Object[]> batch = new ArrayList<>(chunk.size());
+            List<DishIndexService.ReviewText> texts = new ArrayList<>(chunk.size());
+            for (NumberedRow numbered : chunk) {
+                ImportRow row = numbered.row();
+                Long localId = row.placeId() != null ? localIdByPlaceId.get(row.placeId()) : null;
+                AuthorSummary user = row.userId() != null ? usersById.get(row.userId()) : usersByEmail.get(row.userEmail());
+                String problem = validate(row, localId, user);
+                if (problem != null) {
+                    reject(numbered.line(), problem);
+                    continue;
+                }
+                LocalDateTime fecha;
+                try {
+                    fecha = parseFecha(row.fecha());
+                } catch (DateTimeParseException e) {
+                    reject(numbered.line(), "Fecha no válida");
+                    continue;
+                }
+                batch.add(new Object[] {
+                    user.id(), localId, row.puntuacion(), row.comentario(), Timestamp.valueOf(fecha),
+                    user.nombre(), user.profileImageUrl()
+                });
+                texts.add(new DishIndexService.ReviewText(localId, row.comentario()));
+                touchedLocalIds.add(localId);
+                touchedUserIds.add(user.id());
+            }
+            if (!batch.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    dishIndexService.index(texts);
+                });
+                inserted += batch.size();
+            }
+            chunk.clear();
+        }
+
+        ImportResult finish() {
+            try {
+                flush();
+            } finally {
+                rebuildAggregates();
+            }
+            System.out.println("📥 Importación: " + inserted + " reseñas insertadas, " + skipped
+                + " descartadas, " + touchedLocalIds.size() + " locales recalculados");
+            return new ImportResult(read, inserted, skipped, touchedLocalIds.size(), errors);
+        }
+
+        /**
+         * La importación se cortó antes de finish(): recalcula lo ya insertado sin tapar el error original.
+         */
+        void abortIfUnfinished() {
+            if (aggregatesRebuilt) {
+                return;
+            }
+            try {
+                rebuildAggregates();
+                System.err.println("⚠️ Importación interrumpida tras " + inserted + " reseñas insertadas; "
+                    + touchedLocalIds.size() + " locales recalculados");
+            } catch (RuntimeException e) {
+                System.err.println("❌ No se pudieron recalcular los agregados de la importación interrumpida: " + e.getMessage());
+            }
+        }
+
+        private void rebuildAggregates() {
+            aggregatesRebuilt = true;
+            // Agregados una sola vez al final, por bloques de locales
+            List<Long> ids = new ArrayList<>(touchedLocalIds);
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> slice = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    placeSummaryService.rebuild(slice);
+                    localRepository.syncRatingsFromSummary(slice);
+                });
+            }
+            List<Long> userIds = new ArrayList<>(touchedUserIds);
+            for (int from = 0; from < userIds.size(); from += CHUNK_SIZE) {
+                userStatsService.rebuild(userIds.subList(from, Math.min(from + CHUNK_SIZE, userIds.size())));
+            }
+            if (!ids.isEmpty()) {
+                reviewPageCache.invalidateAll();
+            }
+        }
+    }
+
+    private static String validate(ImportRow row, Long localId, AuthorSummary user) {
+        if (row.placeId() == null) {
+            return "Falta placeId";
+        }
+        if (localId == null) {
+            return "Local no encontrado: " + row.placeId();
+        }
+        if (user == null) {
+            return "Usuario no encontrado";
+        }
+        if (row.puntuacion() == null || row.puntuacion() < 1 || row.puntuacion() > 5) {
+            return "Puntuación fuera de rango (1-5)";
+        }
+        if (row.comentario() != null && row.comentario().length() > 2000) {
+            return "Comentario de más de 2000 caracteres";
+        }
+        return null;
+    }
+
+    private static LocalDateTime parseFecha(String value) {
+        if (value == null || value.isBlank()) {
+            return LocalDateTime.now();
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() == 10) {
+            return LocalDate.parse(trimmed).atStartOfDay();
+        }
+        return LocalDateTime.parse(trimmed);
+    }
+
+    private record NumberedRow(long line, ImportRow row) {}
+
+    public record ImportRow(
+        String placeId,
+        Long userId,
+        String userEmail,
+        Integer puntuacion,
+        String comentario,
+        String fecha
+    ) {}
+
+    public record ImportResult(
+        long read,
+        long inserted,
+        long skipped,
+        int placesRecomputed,
+        List<String> errors
+    ) {}
+}
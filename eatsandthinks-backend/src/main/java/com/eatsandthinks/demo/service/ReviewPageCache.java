@@ -0,0 +1,139 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+
+import com.eatsandthinks.demo.service.ReviewService.ReviewDTO;
+import com.eatsandthinks.demo.service.ReviewService.ReviewPage;
+import com.eatsandthinks.demo.service.ReviewService.ReviewSort;
+import com.eatsandthinks.demo.util.TransactionHooks;
+import com.eatsandthinks.demo.util.VersionedLruCache;
+
+/**
+ * Caché de la primera página de reseñas de cada local (por orden y tamaño de página).
+ *
+ * - Las escrituras invalidan el local tras el commit; las respuestas solo parchean replyCount.
+ * - Si muchas peticiones piden la misma página sin caché, solo una va a la BD y el resto espera su resultado.
+ * - La versión de cada local vive en su entrada de la LRU (VersionedLruCache): una carga que empezó
+ *   antes de una invalidación o de un parche no se guarda, y la comprobación y el guardado son atómicos.
+ */
+@Service
+public class ReviewPageCache {
+
+    private static final int MAX_PLACES = 2000;
+
+    // placeId -> (orden:tamaño -> página), cada mapa inmutable
+    private final VersionedLruCache<String, Map<String, ReviewPage>> pagesByPlace = new VersionedLruCache<>(MAX_PLACES);
+    private final Map<String, CompletableFuture<ReviewPage>> inFlight = new ConcurrentHashMap<>();
+
+    public ReviewPage getFirstPage(String placeId, ReviewSort sort, int limit, Supplier<ReviewPage> loader) {
+        String variant = sort.name() + ":" + limit;
+        Map<String, ReviewPage> pages = pagesByPlace.get(placeId);
+        ReviewPage cached = pages != null ? pages.get(variant) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        String key = placeId + "|" + variant;
+        CompletableFuture<ReviewPage> mine = new CompletableFuture<>();
+        CompletableFuture<ReviewPage> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        VersionedLruCache.Stamp<String, Map<String, ReviewPage>> stamp = pagesByPlace.stamp(placeId);
+        try {
+            ReviewPage loaded = loader.get();
+            pagesByPlace.storeIf(stamp, current -> withPage(current, variant, loaded));
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Descarta las páginas del local cuando la transacción actual confirme.
+     */
+    public void invalidateAfterCommit(String placeId) {
+        if (placeId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> invalidate(placeId));
+    }
+
+    /**
+     * Suma {@code delta} al replyCount de la reseña en las páginas cacheadas, tras el commit.
+     * También sube la versión: una carga en curso pudo leer el recuento anterior.
+     */
+    public void patchReplyCountAfterCommit(String placeId, Long reviewId, long delta) {
+        if (placeId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            pagesByPlace.update(placeId, pages -> {
+                Map<String, ReviewPage> patched = new HashMap<>();
+                pages.forEach((variant, page) -> patched.put(variant, withReplyDelta(page, reviewId, delta)));
+                return Map.copyOf(patched);
+            });
+            dropInFlight(placeId);
+        });
+    }
+
+    /**
+     * Descarta todas las páginas (por ejemplo, cuando cambian datos de autor en muchos locales).
+     */
+    public void invalidateAll() {
+        pagesByPlace.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Descarta las páginas de varios locales ya mismo (fuera de transacción).
+     */
+    public void invalidatePlaces(Collection<String> placeIds) {
+        placeIds.forEach(this::invalidate);
+    }
+
+    private void invalidate(String placeId) {
+        pagesByPlace.invalidate(placeId);
+        dropInFlight(placeId);
+    }
+
+    /**
+     * Las cargas en curso ya no se guardarán; las nuevas peticiones no deben esperarlas.
+     */
+    private void dropInFlight(String placeId) {
+        inFlight.keySet().removeIf(key -> key.startsWith(placeId + "|"));
+    }
+
+    private static Map<String, ReviewPage> withPage(Map<String, ReviewPage> current, String variant, ReviewPage page) {
+        Map<String, ReviewPage> pages = current != null ? new HashMap<>(current) : new HashMap<>();
+        pages.put(variant, page);
+        return Map.copyOf(pages);
+    }
+
+    private static ReviewPage withReplyDelta(ReviewPage page, Long reviewId, long delta) {
+        boolean found = page.items().stream().anyMatch(r -> r.reviewId().equals(reviewId));
+        if (!found) {
+            return page;
+        }
+        List<ReviewDTO> items = page.items().stream()
+            .map(r -> !r.reviewId().equals(reviewId) ? r : new ReviewDTO(
+                r.reviewId(), r.puntuacion(), r.comentario(), r.fecha(), r.userId(), r.author(),
+                r.placeId(), r.restaurantName(), r.authorAvatarUrl(), Math.max(0, r.replyCount() + delta),
+                r.helpfulCount(), r.photos()))
+            .toList();
+        return new ReviewPage(items, page.nextCursor());
+    }
+}
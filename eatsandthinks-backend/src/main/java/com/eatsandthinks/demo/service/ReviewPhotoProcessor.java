@@ -0,0 +1,165 @@
+package com.eatsandthinks.demo.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.eatsandthinks.demo.entity.ReviewPhoto;
+import com.eatsandthinks.demo.entity.ReviewPhoto.Status;
+import com.eatsandthinks.demo.repository.ReviewPhotoRepository;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+
+/**
+ * Valida una foto recién subida y genera su miniatura, fuera del hilo de la petición.
+ *
+ * La imagen se decodifica submuestreada (solo las filas y columnas necesarias), así que
+ * una foto de 12 megapíxeles no se carga entera en memoria. Todo ocurre en la carpeta
+ * privada de parciales: solo si el fichero es una imagen legible se mueven original y
+ * miniatura a la carpeta pública y la foto pasa a READY con sus URLs. Si no, se borra
+ * y la foto queda en FAILED sin haberse servido nunca.
+ */
+@Service
+public class ReviewPhotoProcessor {
+
+    private static final int THUMBNAIL_SIZE = 400;
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    private final ReviewPhotoRepository reviewPhotoRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewPageCache reviewPageCache;
+
+    public ReviewPhotoProcessor(ReviewPhotoRepository reviewPhotoRepository,
+                                ReviewRepository reviewRepository,
+                                ReviewPageCache reviewPageCache) {
+        this.reviewPhotoRepository = reviewPhotoRepository;
+        this.reviewRepository = reviewRepository;
+        this.reviewPageCache = reviewPageCache;
+    }
+
+    @Async("backgroundExecutor")
+    public void process(Long photoId, PhotoFiles files) {
+        ReviewPhoto photo = reviewPhotoRepository.findById(photoId).orElse(null);
+        if (photo == null || photo.getStatus() != Status.PROCESSING) {
+            return;
+        }
+        Status result;
+        try {
+            BufferedImage image = readScaled(files.staged());
+            if (image != null) {
+                ImageIO.write(image, "jpg", files.stagedThumbnail().toFile());
+                Files.createDirectories(files.original().getParent());
+                // Primero la miniatura: el original publicado implica que todo está en su sitio
+                move(files.stagedThumbnail(), files.thumbnail());
+                move(files.staged(), files.original());
+                result = Status.READY;
+            } else {
+                result = Status.FAILED;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error procesando la foto " + photoId + ": " + e.getMessage());
+            result = Status.FAILED;
+        }
+        if (result == Status.FAILED) {
+            try {
+                Files.deleteIfExists(files.staged());
+                Files.deleteIfExists(files.stagedThumbnail());
+                Files.deleteIfExists(files.thumbnail());
+                Files.deleteIfExists(files.original());
+            } catch (IOException ignored) {}
+        } else {
+            photo.setUrl(files.url());
+            photo.setThumbnailUrl(files.thumbnailUrl());
+        }
+        photo.setStatus(result);
+        photo.setUpdatedAt(LocalDateTime.now());
+        reviewPhotoRepository.save(photo);
+        if (result == Status.READY) {
+            reviewPageCache.invalidatePlaces(reviewRepository.findPlaceIdsByReviewIds(List.of(photo.getReviewId())));
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // La carpeta de parciales está en otro sistema de ficheros
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Devuelve la miniatura (lado mayor THUMBNAIL_SIZE, fondo blanco para PNG con transparencia),
+     * o null si el fichero no es una imagen soportada.
+     */
+    private static BufferedImage readScaled(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    return null;
+                }
+                int step = Math.max(1, Math.max(width, height) / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(source.getWidth(), source.getHeight()));
+                int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scaled.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, targetWidth, targetHeight);
+                    g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+                } finally {
+                    g.dispose();
+                }
+                return scaled;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Ficheros de una foto: los privados (parcial completo y miniatura) y los públicos a los que
+     * se mueven si la imagen es válida, con las URLs que tendrán.
+     */
+    public record PhotoFiles(
+        Path staged,
+        Path stagedThumbnail,
+        Path original,
+        Path thumbnail,
+        String url,
+        String thumbnailUrl
+    ) {}
+}
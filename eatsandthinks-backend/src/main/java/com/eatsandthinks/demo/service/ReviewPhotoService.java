@@ -0,0 +1,340 @@
+package com.eatsandthinks.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+
+import com.eatsandthinks.demo.entity.Review;
+import com.eatsandthinks.demo.entity.ReviewPhoto;
+import com.eatsandthinks.demo.entity.ReviewPhoto.Status;
+import com.eatsandthinks.demo.repository.ReviewPhotoRepository;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+import com.eatsandthinks.demo.service.ReviewPhotoProcessor.PhotoFiles;
+import com.eatsandthinks.demo.util.TransactionHooks;
+
+/**
+ * Subida reanudable de fotos de reseñas.
+ *
+ * El cliente declara tamaño y tipo, y envía el fichero en uno o varios fragmentos
+ * indicando el offset. Cada fragmento se copia del cuerpo de la petición al fichero
+ * parcial con un búfer fijo (nunca entero en memoria) y el progreso queda en
+ * review_photos.received_bytes, así que tras un corte basta con consultar el estado
+ * y continuar desde ahí. Al completarse, el fichero se queda en la carpeta privada de
+ * parciales y ReviewPhotoProcessor comprueba en segundo plano que sea una imagen y genera
+ * la miniatura. Solo entonces se mueve a la carpeta pública (servida con caché inmutable)
+ * y la foto recibe sus URLs: un fichero que no sea una imagen nunca llega a publicarse.
+ */
+@Service
+public class ReviewPhotoService {
+
+    public static final long MAX_PHOTO_BYTES = 15L * 1024 * 1024;
+    private static final int MAX_PHOTOS_PER_REVIEW = 6;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int STALE_UPLOAD_HOURS = 24;
+    private static final int STUCK_PROCESSING_MINUTES = 30;
+    private static final int CLEANUP_BATCH = 200;
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/png", "png"
+    );
+
+    private final ReviewPhotoRepository reviewPhotoRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewPhotoProcessor reviewPhotoProcessor;
+    // Fotos con un fragmento en curso: evita dos escrituras simultáneas sobre el mismo fichero
+    private final Set<Long> writing = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.media.base-dir:uploads}")
+    private String mediaBaseDir;
+
+    @Value("${app.media.partial-dir:uploads-partial}")
+    private String partialDir;
+
+    public ReviewPhotoService(ReviewPhotoRepository reviewPhotoRepository,
+                              ReviewRepository reviewRepository,
+                              ReviewPhotoProcessor reviewPhotoProcessor) {
+        this.reviewPhotoRepository = reviewPhotoRepository;
+        this.reviewRepository = reviewRepository;
+        this.reviewPhotoProcessor = reviewPhotoProcessor;
+    }
+
+    /**
+     * Abre una subida para una reseña del usuario.
+     */
+    public PhotoUploadStatus startUpload(Long reviewId, Long userId, String contentType, long size) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new IllegalArgumentException("Reseña no encontrada"));
+        if (!review.getUserId().equals(userId)) {
+            throw new SecurityException("No tienes permisos para añadir fotos a esta reseña");
+        }
+        if (contentType == null || !EXTENSIONS.containsKey(contentType)) {
+            throw new IllegalArgumentException("Formato no soportado (solo JPEG o PNG)");
+        }
+        if (size <= 0 || size > MAX_PHOTO_BYTES) {
+            throw new IllegalArgumentException("La foto debe ocupar como máximo 15MB");
+        }
+        if (reviewPhotoRepository.countByReviewIdAndStatusNot(reviewId, Status.FAILED) >= MAX_PHOTOS_PER_REVIEW) {
+            throw new IllegalArgumentException("Máximo " + MAX_PHOTOS_PER_REVIEW + " fotos por reseña");
+        }
+        ReviewPhoto photo = new ReviewPhoto();
+        photo.setReviewId(reviewId);
+        photo.setUserId(userId);
+        photo.setContentType(contentType);
+        photo.setTotalBytes(size);
+        return PhotoUploadStatus.of(reviewPhotoRepository.save(photo));
+    }
+
+    /**
+     * Escribe un fragmento a partir de {@code offset}, que debe coincidir con lo ya recibido.
+     * Si la conexión se corta a mitad, lo escrito hasta ese momento cuenta como recibido.
+     * {@code publicBaseUrl} es la raíz pública del servidor para montar las URLs finales.
+     */
+    public PhotoUploadStatus appendChunk(Long photoId, Long userId, long offset, InputStream body,
+                                         String publicBaseUrl) throws IOException {
+        ReviewPhoto photo = findOwned(photoId, userId);
+        if (photo.getStatus() != Status.UPLOADING) {
+            throw new OffsetMismatchException(photo.getReceivedBytes(), "La subida ya está completa");
+        }
+        if (!writing.add(photoId)) {
+            throw new OffsetMismatchException(photo.getReceivedBytes(), "Ya hay un fragmento en curso para esta foto");
+        }
+        try {
+            // Otro fragmento pudo terminar (o completar la foto) entre la primera lectura y el guard
+            photo = findOwned(photoId, userId);
+            if (photo.getStatus() != Status.UPLOADING) {
+                throw new OffsetMismatchException(photo.getReceivedBytes(), "La subida ya está completa");
+            }
+            if (offset != photo.getReceivedBytes()) {
+                throw new OffsetMismatchException(photo.getReceivedBytes(), "Offset no válido");
+            }
+            long remaining = photo.getTotalBytes() - offset;
+            Path part = partialPath(photoId);
+            Files.createDirectories(part.getParent());
+            long written = 0;
+            boolean tooLarge = false;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Restos de un fragmento anterior que se cortó antes de registrarse
+                channel.truncate(offset);
+                channel.position(offset);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (written + read > remaining) {
+                        tooLarge = true;
+                        break;
+                    }
+                    wrapper.clear().limit(read);
+                    while (wrapper.hasRemaining()) {
+                        channel.write(wrapper);
+                    }
+                    written += read;
+                }
+                if (tooLarge) {
+                    channel.truncate(offset);
+                    written = 0;
+                }
+            } finally {
+                if (written > 0) {
+                    photo.setReceivedBytes(offset + written);
+                    photo.setUpdatedAt(LocalDateTime.now());
+                    photo = reviewPhotoRepository.save(photo);
+                }
+            }
+            if (tooLarge) {
+                throw new IllegalArgumentException("El fragmento supera el tamaño declarado");
+            }
+            if (photo.getReceivedBytes() == photo.getTotalBytes()) {
+                photo = complete(photo, publicBaseUrl);
+            }
+            return PhotoUploadStatus.of(photo);
+        } finally {
+            writing.remove(photoId);
+        }
+    }
+
+    public PhotoUploadStatus getStatus(Long photoId, Long userId) {
+        return PhotoUploadStatus.of(findOwned(photoId, userId));
+    }
+
+    /**
+     * Fotos publicadas de varias reseñas con una sola consulta.
+     */
+    public Map<Long, List<ReviewPhotoDTO>> getPhotos(Collection<Long> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return Map.of();
+        }
+        return reviewPhotoRepository.findByReviewIdInAndStatusOrderByIdAsc(reviewIds, Status.READY).stream()
+            .collect(Collectors.groupingBy(ReviewPhoto::getReviewId,
+                Collectors.mapping(p -> new ReviewPhotoDTO(p.getId(), p.getUrl(), p.getThumbnailUrl()), Collectors.toList())));
+    }
+
+    /**
+     * Borra las fotos de una reseña; los ficheros se eliminan tras el commit.
+     */
+    @Transactional
+    public void deleteForReview(Long reviewId) {
+        List<Long> photoIds = reviewPhotoRepository.findByReviewId(reviewId).stream()
+            .map(ReviewPhoto::getId).toList();
+        if (photoIds.isEmpty()) {
+            return;
+        }
+        reviewPhotoRepository.deleteByReviewId(reviewId);
+        TransactionHooks.afterCommit(() -> {
+            try {
+                FileSystemUtils.deleteRecursively(reviewDir(reviewId));
+                for (Long photoId : photoIds) {
+                    Files.deleteIfExists(partialPath(photoId));
+                    Files.deleteIfExists(stagedThumbnailPath(photoId));
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ No se pudieron borrar las fotos de la reseña " + reviewId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Descarta las subidas abandonadas y los registros de fotos que no se pudieron procesar.
+     */
+    @Scheduled(fixedDelayString = "${app.media.photo-cleanup-ms:3600000}")
+    public void cleanupStaleUploads() {
+        LocalDateTime before = LocalDateTime.now().minusHours(STALE_UPLOAD_HOURS);
+        List<ReviewPhoto> stale = new ArrayList<>(
+            reviewPhotoRepository.findByStatusAndUpdatedAtBefore(Status.UPLOADING, before, Limit.of(CLEANUP_BATCH)));
+        stale.addAll(reviewPhotoRepository.findByStatusAndUpdatedAtBefore(Status.FAILED, before, Limit.of(CLEANUP_BATCH)));
+        if (stale.isEmpty()) {
+            return;
+        }
+        for (ReviewPhoto photo : stale) {
+            if (writing.contains(photo.getId())) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(partialPath(photo.getId()));
+                Files.deleteIfExists(stagedThumbnailPath(photo.getId()));
+            } catch (IOException ignored) {}
+            reviewPhotoRepository.delete(photo);
+        }
+        System.out.println("🧹 Subidas de fotos descartadas: " + stale.size());
+    }
+
+    /**
+     * Da por fallidas las fotos que se quedaron en PROCESSING (reinicio del servidor, cola llena...).
+     * Las URLs públicas se calculan con la petición que completó la subida, así que no se pueden
+     * relanzar desde aquí; el usuario puede volver a subirlas y la limpieza borra el fichero privado.
+     */
+    @Scheduled(fixedDelayString = "${app.media.photo-retry-ms:600000}")
+    public void failStuckProcessing() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(STUCK_PROCESSING_MINUTES);
+        List<ReviewPhoto> stuck = reviewPhotoRepository.findByStatusAndUpdatedAtBefore(
+            Status.PROCESSING, before, Limit.of(CLEANUP_BATCH));
+        for (ReviewPhoto photo : stuck) {
+            photo.setStatus(Status.FAILED);
+            photo.setUpdatedAt(LocalDateTime.now());
+            reviewPhotoRepository.save(photo);
+        }
+        if (!stuck.isEmpty()) {
+            System.out.println("⚠️ Fotos atascadas en PROCESSING marcadas como fallidas: " + stuck.size());
+        }
+    }
+
+    /**
+     * La foto queda en PROCESSING sin URL; el fichero sigue en la carpeta privada hasta que
+     * ReviewPhotoProcessor lo valide.
+     */
+    private ReviewPhoto complete(ReviewPhoto photo, String publicBaseUrl) {
+        String base = publicBaseUrl + "/media/review-photos/" + photo.getReviewId() + "/";
+        Path original = originalPath(photo);
+        Path thumbnail = thumbnailPath(photo);
+        photo.setStatus(Status.PROCESSING);
+        photo.setUpdatedAt(LocalDateTime.now());
+        ReviewPhoto saved = reviewPhotoRepository.save(photo);
+        reviewPhotoProcessor.process(saved.getId(), new PhotoFiles(
+            partialPath(saved.getId()), stagedThumbnailPath(saved.getId()),
+            original, thumbnail,
+            base + original.getFileName(), base + thumbnail.getFileName()));
+        return saved;
+    }
+
+    private ReviewPhoto findOwned(Long photoId, Long userId) {
+        ReviewPhoto photo = reviewPhotoRepository.findById(photoId)
+            .orElseThrow(() -> new IllegalArgumentException("Foto no encontrada"));
+        if (!photo.getUserId().equals(userId)) {
+            throw new SecurityException("No tienes permisos sobre esta foto");
+        }
+        return photo;
+    }
+
+    private Path reviewDir(Long reviewId) {
+        return Paths.get(mediaBaseDir, "review-photos", String.valueOf(reviewId)).toAbsolutePath().normalize();
+    }
+
+    private Path originalPath(ReviewPhoto photo) {
+        return reviewDir(photo.getReviewId()).resolve(photo.getId() + "." + EXTENSIONS.get(photo.getContentType()));
+    }
+
+    private Path thumbnailPath(ReviewPhoto photo) {
+        return reviewDir(photo.getReviewId()).resolve(photo.getId() + "-thumb.jpg");
+    }
+
+    private Path partialPath(Long photoId) {
+        return Paths.get(partialDir, photoId + ".part").toAbsolutePath().normalize();
+    }
+
+    private Path stagedThumbnailPath(Long photoId) {
+        return Paths.get(partialDir, photoId + "-thumb.jpg").toAbsolutePath().normalize();
+    }
+
+    /**
+     * El offset del cliente no coincide con lo recibido (o la subida no admite más fragmentos).
+     */
+    public static class OffsetMismatchException extends IllegalStateException {
+        private final long expectedOffset;
+
+        public OffsetMismatchException(long expectedOffset, String message) {
+            super(message);
+            this.expectedOffset = expectedOffset;
+        }
+
+        public long getExpectedOffset() {
+            return expectedOffset;
+        }
+    }
+
+    public record ReviewPhotoDTO(Long id, String url, String thumbnailUrl) {}
+
+    public record PhotoUploadStatus(
+        Long photoId,
+        Long reviewId,
+        String status,
+        long receivedBytes,
+        long totalBytes,
+        String url,
+        String thumbnailUrl
+    ) {
+        static PhotoUploadStatus of(ReviewPhoto photo) {
+            return new PhotoUploadStatus(photo.getId(), photo.getReviewId(), photo.getStatus().name(),
+                photo.getReceivedBytes(), photo.getTotalBytes(), photo.getUrl(), photo.getThumbnailUrl());
+        }
+    }
+}
@@ -4,8 +4,12 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,15 +19,35 @@ import com.eatsandthinks.demo.entity.ReviewReply;
 import com.eatsandthinks.demo.entity.ReviewReplyNotification;
 import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.ReviewReplyNotificationRepository;
+import com.eatsandthinks.demo.util.TransactionHooks;
 
+/**
+ * Notificaciones de respuestas a reseñas.
+ *
+ * El contador de no leídas que consulta el frontend en cada sondeo vive en memoria:
+ * se carga de la BD la primera vez que se pide, se incrementa tras el commit de cada
+ * notificación nueva y se descarta cuando el usuario lleva un rato sin consultarlo.
+ *
+ * El contador se instala antes de leer la BD, así que los cambios que se confirman durante
+ * la carga quedan apuntados y se suman al resultado en lugar de perderse. Aun así, una
+ * notificación confirmada justo antes de la lectura podría contarse dos veces; por eso el
+ * contador se vuelve a leer de la BD cada RESYNC_MS aunque el usuario siga consultándolo.
+ */
 @Service
 public class ReviewReplyNotificationService {
 
     private final ReviewReplyNotificationRepository notificationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private static final ZoneId DEFAULT_ZONE = ZoneId.of("Europe/Madrid");
+    private static final long IDLE_EVICT_MS = 30 * 60_000L;
+    private static final long RESYNC_MS = 5 * 60_000L;
 
-    public ReviewReplyNotificationService(ReviewReplyNotificationRepository notificationRepository) {
+    private final Map<Long, UnreadCounter> unreadCounters = new ConcurrentHashMap<>();
+
+    public ReviewReplyNotificationService(ReviewReplyNotificationRepository notificationRepository,
+                                          ApplicationEventPublisher eventPublisher) {
         this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public void notifyReviewAuthor(Review review, ReviewReply reply, User responder, LocalEntity local) {
@@ -46,11 +70,31 @@ public class ReviewReplyNotificationService {
         notification.setReplySnippet(buildSnippet(reply.getContent()));
         notification.setCreatedAt(LocalDateTime.now(DEFAULT_ZONE));
         notificationRepository.save(notification);
+        Long recipientId = review.getUserId();
+        TransactionHooks.afterCommit(() -> adjustUnread(recipientId, 1));
+        // NotificationStreamService lo envía por SSE tras el commit
+        eventPublisher.publishEvent(new ReplyNotificationCreated(recipientId, mapToDto(notification)));
     }
 
+    /**
+     * Lectura en memoria; solo va a la BD si el usuario no tiene contador cargado.
+     */
     public long getUnreadCount(Long userId) {
         if (userId == null) return 0;
-        return notificationRepository.countByUserIdAndReadFlagFalse(userId);
+        UnreadCounter counter = unreadCounters.computeIfAbsent(userId, id -> new UnreadCounter());
+        if (counter.needsLoad() && counter.startLoad()) {
+            try {
+                counter.finishLoad(notificationRepository.countByUserIdAndReadFlagFalse(userId));
+            } catch (RuntimeException e) {
+                counter.abortLoad();
+                throw e;
+            }
+        }
+        if (!counter.isLoaded()) {
+            // Otro hilo está haciendo la primera carga
+            return notificationRepository.countByUserIdAndReadFlagFalse(userId);
+        }
+        return counter.read();
     }
 
     public List<ReplyNotificationDTO> getNotifications(Long userId) {
@@ -63,19 +107,49 @@ public class ReviewReplyNotificationService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Un único UPDATE por petición; devuelve cuántas notificaciones pasaron a leídas.
+     */
     @Transactional
-    public void markAsRead(Long userId, List<Long> notificationIds, boolean markAll) {
-        if (userId == null) return;
-        List<ReviewReplyNotification> notifications;
+    public int markAsRead(Long userId, List<Long> notificationIds, boolean markAll) {
+        if (userId == null) return 0;
         if (markAll) {
-            notifications = notificationRepository.findByUserIdAndReadFlagFalse(userId);
-        } else if (notificationIds != null && !notificationIds.isEmpty()) {
-            notifications = notificationRepository.findByIdInAndUserId(notificationIds, userId);
-        } else {
+            int updated = notificationRepository.markAllRead(userId);
+            // Se recarga en el siguiente sondeo: cuenta también lo que llegue mientras tanto
+            TransactionHooks.afterCommit(() -> unreadCounters.remove(userId));
+            return updated;
+        }
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+        int updated = notificationRepository.markReadByIds(userId, notificationIds);
+        if (updated > 0) {
+            TransactionHooks.afterCommit(() -> adjustUnread(userId, -updated));
+        }
+        return updated;
+    }
+
+    /**
+     * Descarta los contadores de usuarios que no han consultado en IDLE_EVICT_MS.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.unread-evict-ms:300000}")
+    public void evictIdleCounters() {
+        long cutoff = System.currentTimeMillis() - IDLE_EVICT_MS;
+        unreadCounters.values().removeIf(counter -> counter.lastAccess < cutoff);
+    }
+
+    /**
+     * Solo ajusta contadores ya instalados (cargados o cargándose); si no hay, la próxima
+     * lectura lo cargará de la BD.
+     */
+    private void adjustUnread(Long userId, int delta) {
+        if (userId == null) {
             return;
         }
-        notifications.forEach(n -> n.setReadFlag(true));
-        notificationRepository.saveAll(notifications);
+        UnreadCounter counter = unreadCounters.get(userId);
+        if (counter != null) {
+            counter.add(delta);
+        }
     }
 
     private ReplyNotificationDTO mapToDto(ReviewReplyNotification notification) {
@@ -101,6 +175,63 @@ public class ReviewReplyNotificationService {
         return value.length() <= max ? value : value.substring(0, max).concat("…");
     }
 
+    /**
+     * Contador de un usuario. Mientras se carga de la BD, los cambios se acumulan en
+     * {@code pending} y se suman al valor leído al terminar.
+     */
+    private static final class UnreadCounter {
+        private long count;
+        private long pending;
+        private boolean loaded;
+        private boolean loading;
+        private long loadedAt;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized boolean needsLoad() {
+            return !loaded || System.currentTimeMillis() - loadedAt > RESYNC_MS;
+        }
+
+        synchronized boolean startLoad() {
+            if (loading) {
+                return false;
+            }
+            loading = true;
+            pending = 0;
+            return true;
+        }
+
+        synchronized void finishLoad(long fromDb) {
+            count = fromDb + pending;
+            pending = 0;
+            loading = false;
+            loaded = true;
+            loadedAt = System.currentTimeMillis();
+        }
+
+        synchronized void abortLoad() {
+            loading = false;
+            pending = 0;
+        }
+
+        synchronized long read() {
+            lastAccess = System.currentTimeMillis();
+            return Math.max(0, count);
+        }
+
+        synchronized void add(int delta) {
+            count += delta;
+            if (loading) {
+                pending += delta;
+            }
+        }
+    }
+
+    public record ReplyNotificationCreated(Long userId, ReplyNotificationDTO notification) {}
+
     public record ReplyNotificationDTO(
         Long id,
         Long reviewId,
@@ -2,9 +2,14 @@ package com.eatsandthinks.demo.service;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +21,7 @@ import com.eatsandthinks.demo.repository.LocalRepository;
 import com.eatsandthinks.demo.repository.ReviewReplyRepository;
 import com.eatsandthinks.demo.repository.ReviewRepository;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.repository.projection.AuthorSummary;
 
 @Service
 public class ReviewReplyService {
@@ -27,17 +33,26 @@ public class ReviewReplyService {
     private final UserRepository userRepository;
     private final LocalRepository localRepository;
     private final ReviewReplyNotificationService notificationService;
+    private final PlaceSummaryService placeSummaryService;
+    private final ReviewPageCache reviewPageCache;
+    private final UserStatsService userStatsService;
 
     public ReviewReplyService(ReviewReplyRepository reviewReplyRepository,
                               ReviewRepository reviewRepository,
                               UserRepository userRepository,
                               LocalRepository localRepository,
-                              ReviewReplyNotificationService notificationService) {
+                              ReviewReplyNotificationService notificationService,
+                              PlaceSummaryService placeSummaryService,
+                              ReviewPageCache reviewPageCache,
+                              UserStatsService userStatsService) {
         this.reviewReplyRepository = reviewReplyRepository;
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.localRepository = localRepository;
         this.notificationService = notificationService;
+        this.placeSummaryService = placeSummaryService;
+        this.reviewPageCache = reviewPageCache;
+        this.userStatsService = userStatsService;
     }
 
     @Transactional
@@ -67,39 +82,110 @@ public class ReviewReplyService {
         reply.setAuthorId(authorId);
         reply.setContent(sanitizedContent);
         reply.setCreatedAt(LocalDateTime.now(DEFAULT_ZONE));
+        reply.setAuthorName(author.getNombre());
+        reply.setAuthorAvatarUrl(author.getProfileImageUrl());
 
         ReviewReply savedReply = reviewReplyRepository.save(reply);
+        reviewRepository.addReplyCount(reviewId, 1);
+        placeSummaryService.onReplyCreated(review.getLocalId());
+        userStatsService.onReplyCreated(review.getUserId());
 
         LocalEntity local = localRepository.findById(review.getLocalId()).orElse(null);
+        if (local != null) {
+            reviewPageCache.patchReplyCountAfterCommit(local.getPlaceId(), reviewId, 1);
+        }
         notificationService.notifyReviewAuthor(review, savedReply, author, local);
 
-        return mapToDto(savedReply, author);
+        return mapToDto(savedReply, null);
     }
 
+    /**
+     * Hilo completo de una reseña. Los autores sin copia se resuelven con una sola consulta IN.
+     */
+    @Transactional(readOnly = true)
     public List<ReplyDTO> getReplies(Long reviewId) {
-        return reviewReplyRepository.findByReviewIdOrderByCreatedAtAsc(reviewId)
-            .stream()
-            .map(reply -> {
-                User author = userRepository.findById(reply.getAuthorId()).orElse(null);
-                return mapToDto(reply, author);
-            })
+        return toDtos(reviewReplyRepository.findByReviewIdOrderByCreatedAtAsc(reviewId));
+    }
+
+    /**
+     * Página de un hilo en orden de llegada. {@code cursor} es el id de la última respuesta
+     * de la página anterior (null para la primera).
+     */
+    @Transactional(readOnly = true)
+    public ReplyPage getReplyPage(Long reviewId, Long cursor, int limit) {
+        List<ReviewReply> rows = reviewReplyRepository.findByReviewIdAndIdGreaterThanOrderByIdAsc(
+            reviewId, cursor != null ? cursor : 0L, Limit.of(limit + 1));
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Primera página de varios hilos con una consulta de respuestas y otra de autores.
+     * Cada hilo trae su propio cursor para seguir con getReplyPage.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ReplyPage> getFirstPages(List<Long> reviewIds, int limit) {
+        if (reviewIds.isEmpty()) {
+            return Map.of();
+        }
+        List<ReviewReply> rows = reviewReplyRepository.findFirstPerReview(reviewIds, limit + 1);
+        Map<Long, List<ReplyDTO>> byReview = toDtos(rows).stream()
+            .collect(Collectors.groupingBy(ReplyDTO::reviewId));
+        Map<Long, ReplyPage> pages = new LinkedHashMap<>();
+        for (Long reviewId : reviewIds) {
+            List<ReplyDTO> thread = byReview.getOrDefault(reviewId, List.of());
+            if (thread.size() > limit) {
+                pages.put(reviewId, new ReplyPage(thread.subList(0, limit), String.valueOf(thread.get(limit - 1).replyId())));
+            } else {
+                pages.put(reviewId, new ReplyPage(thread, null));
+            }
+        }
+        return pages;
+    }
+
+    private ReplyPage toPage(List<ReviewReply> rows, int limit) {
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = String.valueOf(rows.get(limit - 1).getId());
+        }
+        return new ReplyPage(toDtos(rows), nextCursor);
+    }
+
+    private List<ReplyDTO> toDtos(List<ReviewReply> replies) {
+        Set<Long> missing = replies.stream()
+            .filter(r -> r.getAuthorName() == null)
+            .map(ReviewReply::getAuthorId)
+            .collect(Collectors.toSet());
+        Map<Long, AuthorSummary> authors = missing.isEmpty() ? Map.of() : userRepository.findAuthorsByIdIn(missing).stream()
+            .collect(Collectors.toMap(AuthorSummary::id, Function.identity()));
+        return replies.stream()
+            .map(reply -> mapToDto(reply, authors.get(reply.getAuthorId())))
             .collect(Collectors.toList());
     }
 
-    private ReplyDTO mapToDto(ReviewReply reply, User author) {
+    /**
+     * Usa la copia del autor guardada en la respuesta; {@code author} solo se usa si no la tiene.
+     */
+    private ReplyDTO mapToDto(ReviewReply reply, AuthorSummary author) {
+        boolean hasSnapshot = reply.getAuthorName() != null;
         return new ReplyDTO(
             reply.getId(),
             reply.getReviewId(),
             reply.getAuthorId(),
-            author != null ? author.getNombre() : "Usuario",
+            hasSnapshot ? reply.getAuthorName() : author != null ? author.nombre() : "Usuario",
             reply.getContent(),
             reply.getCreatedAt(),
-            author != null ? author.getProfileImageUrl() : null
+            hasSnapshot ? reply.getAuthorAvatarUrl() : author != null ? author.profileImageUrl() : null
         );
     }
 
     public record ReplyCreationDTO(String content) {}
 
+    public record ReplyPage(
+        List<ReplyDTO> items,
+        String nextCursor
+    ) {}
+
     public record ReplyDTO(
         Long replyId,
         Long reviewId,
@@ -6,12 +6,21 @@ import com.eatsandthinks.demo.entity.User;
 import com.eatsandthinks.demo.repository.LocalRepository;
 import com.eatsandthinks.demo.repository.ReviewRepository;
 import com.eatsandthinks.demo.repository.ReviewReplyRepository;
+import com.eatsandthinks.demo.repository.ReviewVoteRepository;
 import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.repository.projection.AuthorSummary;
+import com.eatsandthinks.demo.service.ReviewPhotoService.ReviewPhotoDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,15 +29,36 @@ public class ReviewService {
     private final LocalRepository localRepository;
     private final UserRepository userRepository;
     private final ReviewReplyRepository reviewReplyRepository;
+    private final PlaceSummaryService placeSummaryService;
+    private final ReviewPageCache reviewPageCache;
+    private final UserStatsService userStatsService;
+    private final TrendingService trendingService;
+    private final ReviewVoteRepository reviewVoteRepository;
+    private final ReviewPhotoService reviewPhotoService;
+    private final DishIndexService dishIndexService;
 
     public ReviewService(ReviewRepository reviewRepository, 
                         LocalRepository localRepository,
                         UserRepository userRepository,
-                        ReviewReplyRepository reviewReplyRepository) {
+                        ReviewReplyRepository reviewReplyRepository,
+                        PlaceSummaryService placeSummaryService,
+                        ReviewPageCache reviewPageCache,
+                        UserStatsService userStatsService,
+                        TrendingService trendingService,
+                        ReviewVoteRepository reviewVoteRepository,
+                        ReviewPhotoService reviewPhotoService,
+                        DishIndexService dishIndexService) {
         this.reviewRepository = reviewRepository;
         this.localRepository = localRepository;
         this.userRepository = userRepository;
         this.reviewReplyRepository = reviewReplyRepository;
+        this.placeSummaryService = placeSummaryService;
+        this.reviewPageCache = reviewPageCache;
+        this.userStatsService = userStatsService;
+        this.trendingService = trendingService;
+        this.reviewVoteRepository = reviewVoteRepository;
+        this.reviewPhotoService = reviewPhotoService;
+        this.dishIndexService = dishIndexService;
     }
 
     /**
@@ -63,9 +93,16 @@ public class ReviewService {
         review.setPuntuacion(dto.puntuacion());
         review.setComentario(dto.comentario());
         review.setFecha(LocalDateTime.now());
+        review.setAuthorName(user.getNombre());
+        review.setAuthorAvatarUrl(user.getProfileImageUrl());
         Review savedReview = reviewRepository.save(review);
+        placeSummaryService.onReviewCreated(local.getId(), savedReview.getPuntuacion());
+        userStatsService.onReviewCreated(savedReview.getUserId(), savedReview.getPuntuacion());
+        dishIndexService.onReviewCreated(savedReview.getId(), local.getId(), savedReview.getComentario());
         // 4. Actualizar rating del local
         updateLocalRating(local.getId());
+        reviewPageCache.invalidateAfterCommit(local.getPlaceId());
+        trendingService.onReviewCreated(local.getPlaceId());
         System.out.println("✅ Reseña creada con ID: " + savedReview.getId());
         return new ReviewDTO(
             savedReview.getId(),
@@ -77,13 +114,17 @@ public class ReviewService {
             local.getPlaceId(),
             local.getNombre(),
             user.getProfileImageUrl(),
-            0L
+            0L,
+            0,
+            List.of()
         );
     }
 
     /**
-     * Obtiene todas las reseñas de un local por placeId
+     * Obtiene todas las reseñas de un local por placeId.
+     * Número fijo de consultas: local, reseñas, autores sin copia (IN) y fotos (IN).
      */
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByLocalPlaceId(String placeId) {
         System.out.println("🔍 Buscando reseñas para placeId: " + placeId);
         LocalEntity local = localRepository.findByPlaceId(placeId)
@@ -94,51 +135,93 @@ public class ReviewService {
         }
         List<Review> reviews = reviewRepository.findByLocalId(local.getId());
         System.out.println("✅ Encontradas " + reviews.size() + " reseñas");
-        return reviews.stream()
-            .map(r -> {
-                User user = userRepository.findById(r.getUserId()).orElse(null);
-                String authorName = user != null ? user.getNombre() : "Usuario Anónimo";
-                long replyCount = reviewReplyRepository.countByReviewId(r.getId());
-                String authorAvatar = user != null ? user.getProfileImageUrl() : null;
-                return new ReviewDTO(
-                    r.getId(),
-                    r.getPuntuacion(),
-                    r.getComentario(),
-                    r.getFecha(),
-                    r.getUserId(),
-                    authorName,
-                    placeId,
-                    local.getNombre(),
-                    authorAvatar,
-                    replyCount
-                );
-            })
-            .collect(Collectors.toList());
+        return toReviewDTOs(reviews, Map.of(local.getId(), local), "Usuario Anónimo");
+    }
+
+    /**
+     * Página de reseñas de un local con paginación por cursor (keyset).
+     * Cada página es una consulta acotada por índice, sin OFFSET, así que la primera
+     * y la página 500 cuestan lo mismo aunque el local tenga decenas de miles de reseñas.
+     * La primera página (sin cursor) se sirve desde ReviewPageCache.
+     */
+    public ReviewPage getReviewPage(String placeId, ReviewSort sort, String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return reviewPageCache.getFirstPage(placeId, sort, limit,
+                () -> loadReviewPage(placeId, sort, PageCursor.first(sort), limit));
+        }
+        return loadReviewPage(placeId, sort, PageCursor.decode(cursor, sort), limit);
+    }
+
+    private ReviewPage loadReviewPage(String placeId, ReviewSort sort, PageCursor after, int limit) {
+        LocalEntity local = localRepository.findByPlaceId(placeId).orElse(null);
+        if (local == null) {
+            return new ReviewPage(List.of(), null);
+        }
+        Limit fetch = Limit.of(limit + 1);
+        List<Review> rows = switch (sort) {
+            case NEWEST -> reviewRepository.findPageNewest(local.getId(), after.fecha(), after.id(), fetch);
+            case HIGHEST -> reviewRepository.findPageHighest(local.getId(), after.key(), after.fecha(), after.id(), fetch);
+            case LOWEST -> reviewRepository.findPageLowest(local.getId(), after.key(), after.fecha(), after.id(), fetch);
+            case HELPFUL -> reviewRepository.findPageHelpful(local.getId(), after.key(), after.fecha(), after.id(), fetch);
+        };
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Review last = rows.get(limit - 1);
+            nextCursor = PageCursor.after(sort, last).encode();
+        }
+        return new ReviewPage(toReviewDTOs(rows, Map.of(local.getId(), local), "Usuario Anónimo"), nextCursor);
     }
 
     /**
      * Obtiene todas las reseñas de un usuario
      */
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByUserId(Long userId) {
         System.out.println("🔍 Buscando reseñas del usuario: " + userId);
         List<Review> reviews = reviewRepository.findByUserId(userId);
+        Set<Long> localIds = reviews.stream().map(Review::getLocalId).collect(Collectors.toSet());
+        Map<Long, LocalEntity> locals = localRepository.findAllById(localIds).stream()
+            .collect(Collectors.toMap(LocalEntity::getId, Function.identity()));
+        return toReviewDTOs(reviews, locals, "Usuario");
+    }
+
+    /**
+     * Monta los DTOs con la copia del autor y el recuento de respuestas guardados en la reseña; fotos en bloque.
+     * Solo las reseñas antiguas sin copia consultan usuarios (una consulta IN).
+     */
+    private List<ReviewDTO> toReviewDTOs(List<Review> reviews, Map<Long, LocalEntity> locals, String fallbackAuthor) {
+        if (reviews.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = reviews.stream()
+            .filter(r -> r.getAuthorName() == null)
+            .map(Review::getUserId)
+            .collect(Collectors.toSet());
+        Map<Long, AuthorSummary> authors = userIds.isEmpty() ? Map.of() : userRepository.findAuthorsByIdIn(userIds).stream()
+            .collect(Collectors.toMap(AuthorSummary::id, Function.identity()));
+        List<Long> reviewIds = reviews.stream().map(Review::getId).toList();
+        Map<Long, List<ReviewPhotoDTO>> photos = reviewPhotoService.getPhotos(reviewIds);
+
         return reviews.stream()
             .map(r -> {
-                LocalEntity local = localRepository.findById(r.getLocalId()).orElse(null);
-                User user = userRepository.findById(r.getUserId()).orElse(null);
-                long replyCount = reviewReplyRepository.countByReviewId(r.getId());
-                String authorAvatar = user != null ? user.getProfileImageUrl() : null;
+                AuthorSummary author = r.getAuthorName() != null
+                    ? new AuthorSummary(r.getUserId(), r.getAuthorName(), r.getAuthorAvatarUrl())
+                    : authors.get(r.getUserId());
+                LocalEntity local = locals.get(r.getLocalId());
                 return new ReviewDTO(
                     r.getId(),
                     r.getPuntuacion(),
                     r.getComentario(),
                     r.getFecha(),
                     r.getUserId(),
-                    user != null ? user.getNombre() : "Usuario",
+                    author != null ? author.nombre() : fallbackAuthor,
                     local != null ? local.getPlaceId() : null,
                     local != null ? local.getNombre() : "Local eliminado",
-                    authorAvatar,
-                    replyCount
+                    author != null ? author.profileImageUrl() : null,
+                    r.getReplyCount(),
+                    r.getHelpfulCount(),
+                    photos.getOrDefault(r.getId(), List.of())
                 );
             })
             .collect(Collectors.toList());
@@ -156,29 +239,23 @@ public class ReviewService {
         if (!review.getUserId().equals(userId)) {
             throw new RuntimeException("No tienes permisos para editar esta reseña");
         }
+        int oldPuntuacion = review.getPuntuacion();
+        String oldComentario = review.getComentario();
         review.setPuntuacion(dto.puntuacion());
         review.setComentario(dto.comentario());
         review.setFecha(LocalDateTime.now());
         Review updated = reviewRepository.save(review);
+        placeSummaryService.onReviewUpdated(updated.getLocalId(), oldPuntuacion, updated.getPuntuacion());
+        userStatsService.onReviewUpdated(updated.getUserId(), oldPuntuacion, updated.getPuntuacion());
+        dishIndexService.onReviewUpdated(reviewId, updated.getLocalId(), oldComentario, updated.getComentario());
         // Actualizar rating del local
         updateLocalRating(review.getLocalId());
-        User user = userRepository.findById(updated.getUserId()).orElse(null);
         LocalEntity local = localRepository.findById(updated.getLocalId()).orElse(null);
+        if (local != null) {
+            reviewPageCache.invalidateAfterCommit(local.getPlaceId());
+        }
         System.out.println("✅ Reseña actualizada");
-        long replyCount = reviewReplyRepository.countByReviewId(updated.getId());
-        String authorAvatar = user != null ? user.getProfileImageUrl() : null;
-        return new ReviewDTO(
-            updated.getId(),
-            updated.getPuntuacion(),
-            updated.getComentario(),
-            updated.getFecha(),
-            updated.getUserId(),
-            user != null ? user.getNombre() : "Usuario",
-            local != null ? local.getPlaceId() : null,
-            local != null ? local.getNombre() : null,
-            authorAvatar,
-            replyCount
-        );
+        return toReviewDTOs(List.of(updated), local != null ? Map.of(local.getId(), local) : Map.of(), "Usuario").get(0);
     }
 
     /**
@@ -194,28 +271,27 @@ public class ReviewService {
             throw new RuntimeException("No tienes permisos para eliminar esta reseña");
         }
         Long localId = review.getLocalId();
+        long replies = reviewReplyRepository.countByReviewId(reviewId);
+        reviewVoteRepository.deleteByReviewId(reviewId);
+        reviewPhotoService.deleteForReview(reviewId);
         reviewRepository.delete(review);
+        placeSummaryService.onReviewDeleted(localId, review.getPuntuacion(), replies);
+        userStatsService.onReviewDeleted(review.getUserId(), review.getPuntuacion(), replies);
+        dishIndexService.onReviewDeleted(reviewId, localId, review.getComentario());
         // Actualizar rating del local
         updateLocalRating(localId);
+        localRepository.findById(localId)
+            .ifPresent(local -> reviewPageCache.invalidateAfterCommit(local.getPlaceId()));
         System.out.println("✅ Reseña eliminada");
     }
 
     /**
-     * Actualiza el rating promedio de un local basado en sus reseñas
+     * Actualiza el rating promedio de un local a partir de place_summary,
+     * que ya tiene aplicada la reseña de esta transacción (O(1), sin recorrer las reseñas)
      */
     private void updateLocalRating(Long localId) {
-        List<Review> reviews = reviewRepository.findByLocalId(localId);
-        if (reviews.isEmpty()) { return; }
-        double avgRating = reviews.stream()
-            .mapToInt(Review::getPuntuacion)
-            .average()
-            .orElse(0.0);
-        LocalEntity local = localRepository.findById(localId).orElse(null);
-        if (local != null) {
-            local.setRating(avgRating);
-            local.setTotalValoraciones(reviews.size());
-            localRepository.save(local);
-            System.out.println("📊 Rating actualizado: " + avgRating + " (" + reviews.size() + " reseñas)");
+        if (localRepository.syncRatingFromSummary(localId) > 0) {
+            System.out.println("📊 Rating actualizado para local " + localId);
         }
     }
     // ========== DTOs ==========    
@@ -245,16 +321,81 @@ public class ReviewService {
         String placeId,
         String restaurantName,
         String authorAvatarUrl,
-        long replyCount
+        long replyCount,
+        int helpfulCount,
+        List<ReviewPhotoDTO> photos
     ) {
         public ReviewDTO(Long reviewId, Integer puntuacion, String comentario, LocalDateTime fecha, Long userId, String author, String placeId) {
-            this(reviewId, puntuacion, comentario, fecha, userId, author, placeId, null, null, 0L);
+            this(reviewId, puntuacion, comentario, fecha, userId, author, placeId, null, null, 0L, 0, List.of());
         }
         public ReviewDTO(Long reviewId, Integer puntuacion, String comentario, LocalDateTime fecha, Long userId, String author, String placeId, String restaurantName) {
-            this(reviewId, puntuacion, comentario, fecha, userId, author, placeId, restaurantName, null, 0L);
+            this(reviewId, puntuacion, comentario, fecha, userId, author, placeId, restaurantName, null, 0L, 0, List.of());
         }
     }
     public record ReviewUpdateDTO(
         Integer puntuacion, String comentario
     ) {}
+    public record ReviewPage(
+        List<ReviewDTO> items,
+        String nextCursor
+    ) {}
+
+    public enum ReviewSort {
+        NEWEST, HIGHEST, LOWEST, HELPFUL;
+
+        public static ReviewSort from(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Orden no válido: " + value);
+            }
+        }
+    }
+
+    /**
+     * Posición de la última reseña devuelta. {@code key} es la puntuación o los votos útiles,
+     * según el orden. Se serializa en base64 url-safe como "orden|clave|fecha|id";
+     * la primera página usa valores centinela.
+     */
+    private record PageCursor(ReviewSort sort, Integer key, LocalDateTime fecha, Long id) {
+        private static final LocalDateTime MAX_FECHA = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+        static PageCursor first(ReviewSort sort) {
+            int key = switch (sort) {
+                case LOWEST -> 0;
+                case HELPFUL -> Integer.MAX_VALUE;
+                default -> 6;
+            };
+            return new PageCursor(sort, key, MAX_FECHA, Long.MAX_VALUE);
+        }
+
+        static PageCursor after(ReviewSort sort, Review last) {
+            int key = sort == ReviewSort.HELPFUL ? last.getHelpfulCount() : last.getPuntuacion();
+            return new PageCursor(sort, key, last.getFecha(), last.getId());
+        }
+
+        String encode() {
+            String raw = sort.name() + "|" + key + "|" + fecha + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor, ReviewSort expected) {
+            PageCursor decoded;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                decoded = new PageCursor(ReviewSort.valueOf(parts[0]), Integer.valueOf(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor no válido");
+            }
+            if (decoded.sort() != expected) {
+                throw new IllegalArgumentException("El cursor pertenece a otro orden");
+            }
+            return decoded;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.eatsandthinks.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.projection.LocalSummary;
+import com.eatsandthinks.demo.util.LruCache;
+import com.eatsandthinks.demo.util.TransactionHooks;
+
+/**
+ * Locales en tendencia durante los últimos 7 días.
+ *
+ * Cada local tiene un anillo de 168 contadores horarios en memoria que alimentan las reseñas,
+ * los favoritos y las visitas a la ficha. Cada minuto se recalcula el top con un heap acotado
+ * (las horas recientes pesan más), así que la consulta solo copia los K primeros.
+ * Los contadores se vuelcan a trending_buckets cada pocos minutos y se recargan al arrancar.
+ *
+ * Las visitas solo cuentan si son de un usuario autenticado, una vez por usuario, local y hora,
+ * para que nadie infle un local recargando la ficha. El mapa de anillos está acotado a MAX_PLACES:
+ * con el mapa lleno, la actividad de locales nuevos se ignora hasta que el recálculo libere hueco.
+ */
+@Service
+public class TrendingService {
+
+    private static final int WINDOW_HOURS = 24 * 7;
+    private static final int TOP_SIZE = 100;
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int MAX_PLACES = 20_000;
+    private static final int MAX_RECENT_VIEWS = 50_000;
+
+    private static final int REVIEW_WEIGHT = 5;
+    private static final int FAVORITE_WEIGHT = 3;
+    private static final int VIEW_WEIGHT = 1;
+
+    private static final String UPSERT_SQL = "INSERT INTO trending_buckets (place_id, hour_epoch, score) "
+        + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE score = VALUES(score)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalRepository localRepository;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // "viewer|placeId" -> hora de la última visita contada
+    private final LruCache<String, Long> recentViews = new LruCache<>(MAX_RECENT_VIEWS);
+    private volatile List<TrendingScore> top = List.of();
+
+    public TrendingService(JdbcTemplate jdbcTemplate, LocalRepository localRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localRepository = localRepository;
+    }
+
+    public void onReviewCreated(String placeId) {
+        recordAfterCommit(placeId, REVIEW_WEIGHT);
+    }
+
+    public void onFavoriteAdded(String placeId) {
+        recordAfterCommit(placeId, FAVORITE_WEIGHT);
+    }
+
+    /**
+     * Cuenta la visita de {@code viewer} (email del usuario autenticado) a la ficha del local.
+     * Las visitas anónimas no cuentan.
+     */
+    public void onDetailsViewed(String placeId, String viewer) {
+        if (placeId == null || viewer == null) {
+            return;
+        }
+        String key = viewer + "|" + placeId;
+        long hour = currentHour();
+        synchronized (recentViews) {
+            Long last = recentViews.get(key);
+            if (last != null && last == hour) {
+                return;
+            }
+            recentViews.put(key, hour);
+        }
+        record(placeId, VIEW_WEIGHT);
+    }
+
+    /**
+     * Los {@code limit} locales con más actividad reciente, ya ordenados.
+     * Los que no estén en la BD se saltan.
+     */
+    public List<TrendingPlace> getTrending(int limit) {
+        List<TrendingScore> snapshot = top;
+        if (snapshot.isEmpty()) {
+            return List.of();
+        }
+        Map<String, LocalSummary> places = localRepository.findSummariesByPlaceIdIn(
+                snapshot.stream().map(TrendingScore::placeId).toList())
+            .stream()
+            .collect(Collectors.toMap(LocalSummary::placeId, Function.identity(), (a, b) -> a));
+        List<TrendingPlace> out = new ArrayList<>(limit);
+        for (TrendingScore entry : snapshot) {
+            LocalSummary place = places.get(entry.placeId());
+            if (place != null) {
+                out.add(new TrendingPlace(place, entry.score()));
+                if (out.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Recalcula el top con un min-heap de tamaño TOP_SIZE y descarta los locales sin actividad en la ventana.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.recompute-ms:60000}")
+    public void recomputeTop() {
+        long nowHour = currentHour();
+        PriorityQueue<TrendingScore> heap = new PriorityQueue<>(TOP_SIZE + 1, Comparator.comparingDouble(TrendingScore::score));
+        windows.entrySet().removeIf(entry -> {
+            double score = entry.getValue().score(nowHour);
+            if (score <= 0) {
+                return !dirty.contains(entry.getKey());
+            }
+            heap.offer(new TrendingScore(entry.getKey(), score));
+            if (heap.size() > TOP_SIZE) {
+                heap.poll();
+            }
+            return false;
+        });
+        List<TrendingScore> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingDouble(TrendingScore::score).reversed());
+        top = List.copyOf(sorted);
+    }
+
+    /**
+     * Vuelca a la BD la hora actual y la anterior de los locales con actividad desde el último volcado.
+     */
+    @Scheduled(fixedDelayString = "${app.trending.checkpoint-ms:300000}", initialDelayString = "${app.trending.checkpoint-ms:300000}")
+    public void checkpoint() {
+        long nowHour = currentHour();
+        List<String> placeIds = new ArrayList<>(dirty);
+        if (!placeIds.isEmpty()) {
+            placeIds.forEach(dirty::remove);
+            List<Object[]> batch = new ArrayList<>(placeIds.size() * 2);
+            for (String placeId : placeIds) {
+                Window window = windows.get(placeId);
+                if (window == null) {
+                    continue;
+                }
+                for (long hour = nowHour - 1; hour <= nowHour; hour++) {
+                    long count = window.get(hour);
+                    if (count > 0) {
+                        batch.add(new Object[] { placeId, hour, count });
+                    }
+                }
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            } catch (RuntimeException e) {
+                // Se reintentará en el siguiente volcado
+                dirty.addAll(placeIds);
+                System.err.println("❌ Error guardando tendencias: " + e.getMessage());
+                return;
+            }
+        }
+        jdbcTemplate.update("DELETE FROM trending_buckets WHERE hour_epoch <= ?", nowHour - WINDOW_HOURS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        long nowHour = currentHour();
+        try {
+            jdbcTemplate.query("SELECT place_id, hour_epoch, score FROM trending_buckets WHERE hour_epoch > ?",
+                rs -> {
+                    Window window = window(rs.getString(1));
+                    if (window != null) {
+                        window.add(rs.getLong(2), rs.getLong(3));
+                    }
+                },
+                nowHour - WINDOW_HOURS);
+            recomputeTop();
+            System.out.println("📈 Tendencias restauradas para " + windows.size() + " locales");
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ No se pudieron restaurar las tendencias: " + e.getMessage());
+        }
+    }
+
+    private void recordAfterCommit(String placeId, int weight) {
+        if (placeId != null) {
+            TransactionHooks.afterCommit(() -> record(placeId, weight));
+        }
+    }
+
+    private void record(String placeId, int weight) {
+        if (placeId == null) {
+            return;
+        }
+        Window window = window(placeId);
+        if (window == null) {
+            return;
+        }
+        window.add(currentHour(), weight);
+        dirty.add(placeId);
+    }
+
+    /**
+     * Anillo del local, o null si es nuevo y ya hay MAX_PLACES en memoria.
+     */
+    private Window window(String placeId) {
+        Window window = windows.get(placeId);
+        if (window != null || windows.size() >= MAX_PLACES) {
+            return window;
+        }
+        return windows.computeIfAbsent(placeId, id -> new Window());
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MS;
+    }
+
+    /**
+     * Anillo de contadores horarios. Cada posición guarda la hora a la que pertenece,
+     * de modo que al dar la vuelta una posición antigua se reinicia en lugar de acumular.
+     */
+    private static final class Window {
+        private final long[] counts = new long[WINDOW_HOURS];
+        private final long[] hours = new long[WINDOW_HOURS];
+
+        synchronized void add(long hour, long amount) {
+            int slot = (int) (hour % WINDOW_HOURS);
+            if (hours[slot] != hour) {
+                hours[slot] = hour;
+                counts[slot] = 0;
+            }
+            counts[slot] += amount;
+        }
+
+        synchronized long get(long hour) {
+            int slot = (int) (hour % WINDOW_HOURS);
+            return hours[slot] == hour ? counts[slot] : 0;
+        }
+
+        /**
+         * Suma ponderada linealmente: la hora actual cuenta 1 y la de hace 7 días casi 0.
+         */
+        synchronized double score(long nowHour) {
+            double score = 0;
+            for (int slot = 0; slot < WINDOW_HOURS; slot++) {
+                long age = nowHour - hours[slot];
+                if (counts[slot] > 0 && age >= 0 && age < WINDOW_HOURS) {
+                    score += counts[slot] * (double) (WINDOW_HOURS - age) / WINDOW_HOURS;
+                }
+            }
+            return score;
+        }
+    }
+
+    public record TrendingScore(String placeId, double score) {}
+
+    public record TrendingPlace(LocalSummary place, double score) {}
+}
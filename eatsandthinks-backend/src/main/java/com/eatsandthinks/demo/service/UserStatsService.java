@@ -0,0 +1,173 @@
+package com.eatsandthinks.demo.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatsandthinks.demo.entity.UserStats;
+import com.eatsandthinks.demo.repository.UserStatsRepository;
+import com.eatsandthinks.demo.util.RangeBackfill;
+
+/**
+ * Mantiene los contadores del perfil (user_stats) con incrementos atómicos dentro de la
+ * transacción del llamante, igual que PlaceSummaryService con los locales: si la fila no
+ * existe se siembra antes en una transacción aparte (solo datos confirmados) y después se
+ * aplica siempre el incremento. Al arrancar se siembran los usuarios que aún no tienen fila.
+ * La lectura no escribe.
+ */
+@Service
+public class UserStatsService {
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("Europe/Madrid");
+    private static final long BACKFILL_RANGE = 1000;
+
+    private final UserStatsRepository userStatsRepository;
+    private final TransactionTemplate seedTransaction;
+
+    public UserStatsService(UserStatsRepository userStatsRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.userStatsRepository = userStatsRepository;
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.seedTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public void onReviewCreated(Long userId, int puntuacion) {
+        apply(userId, () -> userStatsRepository.applyReviewDelta(userId, 1, puntuacion, now()));
+    }
+
+    public void onReviewUpdated(Long userId, int oldPuntuacion, int newPuntuacion) {
+        if (oldPuntuacion != newPuntuacion) {
+            apply(userId, () -> userStatsRepository.applyReviewDelta(userId, 0, newPuntuacion - oldPuntuacion, now()));
+        }
+    }
+
+    public void onReviewDeleted(Long userId, int puntuacion, long replies) {
+        apply(userId, () -> userStatsRepository.applyReviewDelta(userId, -1, -puntuacion, now()));
+        if (replies > 0) {
+            apply(userId, () -> userStatsRepository.applyRepliesReceivedDelta(userId, -replies, now()));
+        }
+    }
+
+    /**
+     * {@code reviewAuthorId} es quien recibe la respuesta, no quien la escribe.
+     */
+    public void onReplyCreated(Long reviewAuthorId) {
+        apply(reviewAuthorId, () -> userStatsRepository.applyRepliesReceivedDelta(reviewAuthorId, 1, now()));
+    }
+
+    public void onFavoriteAdded(Long userId) {
+        apply(userId, () -> userStatsRepository.applyFavoriteDelta(userId, 1, now()));
+    }
+
+    public void onFavoriteRemoved(Long userId) {
+        apply(userId, () -> userStatsRepository.applyFavoriteDelta(userId, -1, now()));
+    }
+
+    /**
+     * Reconstruye desde cero los contadores de los usuarios indicados (cargas masivas).
+     */
+    @Transactional
+    public void rebuild(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userStatsRepository.deleteByUserIds(userIds);
+        userStatsRepository.seedByUserIds(userIds);
+    }
+
+    /**
+     * Crea las filas que falten por rangos de id, cada rango en su propia transacción corta.
+     */
+    @Async("backgroundExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissingOnStartup() {
+        try {
+            Long maxId = userStatsRepository.findMaxUserId();
+            if (maxId == null) {
+                return;
+            }
+            long seeded = RangeBackfill.run(seedTransaction, maxId, BACKFILL_RANGE,
+                userStatsRepository::seedMissingInRange);
+            if (seeded > 0) {
+                System.out.println("📊 user_stats sembrado para " + seeded + " usuarios");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ No se pudo sembrar user_stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lectura de una sola fila por clave primaria; si aún no existe se calcula sin guardarla.
+     */
+    @Transactional(readOnly = true)
+    public UserStatsDTO getStats(Long userId) {
+        UserStats stats = userStatsRepository.findById(userId).orElse(null);
+        if (stats != null) {
+            return toDto(stats.getReviewCount(), stats.getRatingSum(), stats.getFavoriteCount(), stats.getRepliesReceived());
+        }
+        List<Object[]> computed = userStatsRepository.computeByUserId(userId);
+        if (computed.isEmpty()) {
+            return new UserStatsDTO(0, 0.0, 0, 0);
+        }
+        Object[] row = computed.get(0);
+        return toDto(((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+            ((Number) row[3]).longValue(), ((Number) row[4]).longValue());
+    }
+
+    /**
+     * Garantiza la fila y después aplica el incremento en la transacción del llamante.
+     */
+    private void apply(Long userId, LongSupplier delta) {
+        if (userId == null) {
+            return;
+        }
+        ensureRow(userId);
+        delta.getAsLong();
+    }
+
+    /**
+     * Misma estrategia que PlaceSummaryService.ensureRow: la siembra va en una transacción propia
+     * que solo ve datos confirmados, así que no incluye ninguna escritura aún abierta.
+     */
+    private void ensureRow(Long userId) {
+        if (userStatsRepository.existsById(userId)) {
+            return;
+        }
+        Boolean visible = seedTransaction.execute(status ->
+            userStatsRepository.existsById(userId)
+                || userStatsRepository.seed(userId) > 0
+                || userStatsRepository.existsById(userId));
+        if (!Boolean.TRUE.equals(visible)) {
+            // Usuario creado en esta misma transacción
+            userStatsRepository.insertEmpty(userId);
+        }
+    }
+
+    private static UserStatsDTO toDto(long reviewCount, long ratingSum, long favoriteCount, long repliesReceived) {
+        double avg = reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+        return new UserStatsDTO(reviewCount, avg, favoriteCount, repliesReceived);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(DEFAULT_ZONE);
+    }
+
+    public record UserStatsDTO(
+        long totalReviews,
+        double avgRating,
+        long favoritesCount,
+        long repliesReceived
+    ) {}
+}
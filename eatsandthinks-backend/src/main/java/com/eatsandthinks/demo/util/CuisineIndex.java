@@ -0,0 +1,118 @@
+package com.eatsandthinks.demo.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Taxonomía de cocinas construida una sola vez al cargar la clase.
+ *
+ * Cada cocina canónica ocupa un bit; el índice invertido asocia cada sinónimo
+ * con la máscara de cocinas que lo contienen. Un filtro de cocinas se compila
+ * una vez por petición y después cada lugar se evalúa con operaciones de bits.
+ */
+public final class CuisineIndex {
+
+    private static final String[] CANONICAL = {
+        "restaurant", "cafe", "bar", "pizza", "asian", "mexican", "italian"
+    };
+
+    // sinónimo -> máscara de cocinas canónicas que lo incluyen
+    private static final Map<String, Integer> SYNONYM_MASK;
+
+    static {
+        Map<String, List<String>> synonyms = Map.of(
+            "restaurant", List.of("restaurante", "comida", "food"),
+            "cafe", List.of("café", "cafe", "coffee"),
+            "bar", List.of("bar", "pub", "cervecería"),
+            "pizza", List.of("pizzeria", "pizza", "italian"),
+            "asian", List.of("asiatico", "asiático", "chino", "japonés", "sushi", "thai"),
+            "mexican", List.of("mexicano", "mexican", "taco", "burrito"),
+            "italian", List.of("italiano", "italian", "pasta", "ristorante")
+        );
+        Map<String, Integer> index = new HashMap<>();
+        for (int bit = 0; bit < CANONICAL.length; bit++) {
+            for (String synonym : synonyms.get(CANONICAL[bit])) {
+                index.merge(synonym, 1 << bit, (a, b) -> a | b);
+            }
+        }
+        SYNONYM_MASK = Map.copyOf(index);
+    }
+
+    private CuisineIndex() {}
+
+    /**
+     * Compila la lista de cocinas de la petición (separadas por comas) en un predicado
+     * sobre el tipo del lugar. Un lugar coincide si su tipo contiene la cocina (o al revés)
+     * o si ambos están relacionados a través de la taxonomía.
+     */
+    public static Predicate<String> compile(String cuisineTypes) {
+        String[] cuisines = normalize(cuisineTypes == null ? List.of() : Arrays.asList(cuisineTypes.split(",")));
+        if (cuisines.length == 0) {
+            return placeType -> true;
+        }
+        int cuisineSynonymMask = 0;
+        int canonicalInCuisineMask = 0;
+        for (String cuisine : cuisines) {
+            cuisineSynonymMask |= SYNONYM_MASK.getOrDefault(cuisine, 0);
+            canonicalInCuisineMask |= containedCanonicalMask(cuisine);
+        }
+        final int synonymMask = cuisineSynonymMask;
+        final int canonicalMask = canonicalInCuisineMask;
+        return rawPlaceType -> {
+            if (rawPlaceType == null) {
+                return false;
+            }
+            String placeType = rawPlaceType.toLowerCase(Locale.ROOT);
+            for (String cuisine : cuisines) {
+                if (placeType.contains(cuisine) || cuisine.contains(placeType)) {
+                    return true;
+                }
+            }
+            return (synonymMask & containedCanonicalMask(placeType)) != 0
+                || (SYNONYM_MASK.getOrDefault(placeType, 0) & canonicalMask) != 0;
+        };
+    }
+
+    /**
+     * Expande las cocinas con las claves canónicas de sus sinónimos
+     * (p. ej. "italiano" -> ["italiano", "italian"]), para consultas por prefijo en la BD.
+     */
+    public static Set<String> expand(Collection<String> cuisineTypes) {
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String cuisine : normalize(cuisineTypes)) {
+            expanded.add(cuisine);
+            int mask = SYNONYM_MASK.getOrDefault(cuisine, 0);
+            for (int bit = 0; bit < CANONICAL.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    expanded.add(CANONICAL[bit]);
+                }
+            }
+        }
+        return expanded;
+    }
+
+    private static int containedCanonicalMask(String value) {
+        int mask = 0;
+        for (int bit = 0; bit < CANONICAL.length; bit++) {
+            if (value.contains(CANONICAL[bit])) {
+                mask |= 1 << bit;
+            }
+        }
+        return mask;
+    }
+
+    private static String[] normalize(Collection<String> cuisineTypes) {
+        return cuisineTypes.stream()
+            .map(c -> c.trim().toLowerCase(Locale.ROOT))
+            .filter(c -> !c.isEmpty())
+            .distinct()
+            .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,33 @@
+package com.eatsandthinks.demo.util;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recorre los ids 1..maxId por rangos fijos y ejecuta cada rango en su propia transacción
+ * (la del TransactionTemplate recibido), para que una siembra masiva no bloquee filas
+ * durante mucho tiempo. Lo usan las siembras de arranque de place_summary y user_stats.
+ */
+public final class RangeBackfill {
+
+    private RangeBackfill() {
+    }
+
+    /**
+     * Devuelve el total de filas que ha creado {@code seeder} en todos los rangos.
+     */
+    public static long run(TransactionTemplate transaction, long maxId, long rangeSize, RangeSeeder seeder) {
+        long seeded = 0;
+        for (long from = 1; from <= maxId; from += rangeSize) {
+            long rangeStart = from;
+            long rangeEnd = from + rangeSize - 1;
+            Integer inserted = transaction.execute(status -> seeder.seed(rangeStart, rangeEnd));
+            seeded += inserted != null ? inserted : 0;
+        }
+        return seeded;
+    }
+
+    @FunctionalInterface
+    public interface RangeSeeder {
+        int seed(long fromId, long toId);
+    }
+}
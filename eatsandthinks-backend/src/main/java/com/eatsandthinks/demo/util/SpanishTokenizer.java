@@ -0,0 +1,80 @@
+package com.eatsandthinks.demo.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para texto de reseñas en español.
+ *
+ * Pasa a minúsculas, quita acentos ("cochinillo asado" y "Cochinillo ASADO" dan lo mismo,
+ * también "jamón"/"jamon"), descarta palabras vacías y de menos de 3 letras y reduce
+ * el plural de forma sencilla ("croquetas" → "croqueta", "calamares" → "calamar",
+ * "postres" → "postre").
+ * Se usa igual al indexar y al buscar, así que basta con que sea consistente.
+ */
+public final class SpanishTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final int MIN_LENGTH = 3;
+    private static final int MAX_LENGTH = 40;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "el", "la", "los", "las", "un", "una", "unos", "unas", "lo", "al", "del", "de", "en", "con", "sin",
+        "por", "para", "que", "y", "o", "u", "e", "a", "es", "son", "fue", "era", "muy", "mas", "pero",
+        "como", "nos", "les", "se", "su", "sus", "mi", "mis", "tu", "te", "me", "ya", "hay", "todo", "toda",
+        "todos", "todas", "este", "esta", "estos", "estas", "ese", "esa", "esos", "esas", "aqui", "alli",
+        "bien", "mal", "bueno", "buena", "buenos", "buenas", "mucho", "mucha", "muchos", "muchas",
+        "poco", "poca", "tambien", "cuando", "donde", "porque", "tiene", "tienen", "tenia", "estaba",
+        "estan", "estaban", "fuimos", "sido", "ser", "estar", "hace", "vez", "veces", "siempre", "nunca", "algo",
+        "nada", "otro", "otra", "otros", "otras", "sobre", "entre", "hasta", "desde", "cual", "solo",
+        "local", "sitio", "restaurante", "comida", "servicio", "precio", "calidad", "recomiendo",
+        "volver", "volveremos", "repetir", "genial", "excelente", "rico", "rica", "ricos", "ricas"
+    );
+
+    private SpanishTokenizer() {}
+
+    /**
+     * Términos distintos del texto, en orden de aparición.
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (token.length() < MIN_LENGTH || token.length() > MAX_LENGTH || STOPWORDS.contains(token)) {
+                continue;
+            }
+            String term = singular(token);
+            if (!STOPWORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    private static String singular(String token) {
+        if (token.length() <= 4 || !token.endsWith("s")) {
+            return token;
+        }
+        if (token.endsWith("es")) {
+            // "-es" solo tras vocal + consonante final ("calamar-es", "flan-es"); en "postres"
+            // o "sobres" la "e" es del singular y el plural es solo la "s"
+            char before = token.charAt(token.length() - 3);
+            char beforeThat = token.charAt(token.length() - 4);
+            if ("rlndj".indexOf(before) >= 0 && "aeiou".indexOf(beforeThat) >= 0) {
+                return token.substring(0, token.length() - 2);
+            }
+        }
+        return token.substring(0, token.length() - 1);
+    }
+}
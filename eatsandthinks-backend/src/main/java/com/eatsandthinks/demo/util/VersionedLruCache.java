@@ -0,0 +1,100 @@
+package com.eatsandthinks.demo.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché LRU acotada para valores que se cargan de la BD y se invalidan tras el commit de una escritura.
+ *
+ * Cada clave tiene una entrada con su número de versión dentro de la propia LRU. Antes de cargar,
+ * el lector toma una {@link Stamp}; al terminar solo guarda si la entrada sigue siendo la misma y
+ * nadie la ha invalidado entretanto. La comprobación y la escritura se hacen bajo el mismo cerrojo,
+ * así que una invalidación nunca queda tapada por una carga que empezó antes. Si la entrada sale
+ * de la LRU mientras se carga, la identidad ya no coincide y la carga tampoco se guarda.
+ */
+public class VersionedLruCache<K, V> {
+
+    private final Map<K, Slot<V>> slots;
+
+    public VersionedLruCache(int maxEntries) {
+        this.slots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Slot<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Slot<V> slot = slots.get(key);
+        return slot != null ? slot.value : null;
+    }
+
+    /**
+     * Versión actual de la clave, a tomar antes de ir a la BD.
+     */
+    public synchronized Stamp<K, V> stamp(K key) {
+        Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+        return new Stamp<>(key, slot, slot.version);
+    }
+
+    /**
+     * Guarda {@code value} si la clave no se ha invalidado desde {@code stamp}.
+     */
+    public boolean storeIf(Stamp<K, V> stamp, V value) {
+        return storeIf(stamp, current -> value);
+    }
+
+    /**
+     * Como {@link #storeIf(Stamp, Object)}, pero calculando el valor a partir del actual
+     * (que puede ser null) para combinar cargas parciales de la misma clave.
+     */
+    public synchronized boolean storeIf(Stamp<K, V> stamp, UnaryOperator<V> merge) {
+        Slot<V> slot = slots.get(stamp.key());
+        if (slot != stamp.slot() || slot.version != stamp.version()) {
+            return false;
+        }
+        slot.value = merge.apply(slot.value);
+        return true;
+    }
+
+    /**
+     * Descarta el valor y anula las cargas en curso de la clave.
+     */
+    public synchronized void invalidate(K key) {
+        Slot<V> slot = slots.get(key);
+        if (slot != null) {
+            slot.version++;
+            slot.value = null;
+        }
+    }
+
+    /**
+     * Modifica el valor cacheado (si lo hay) y anula las cargas en curso, que no incluyen el cambio.
+     */
+    public synchronized void update(K key, UnaryOperator<V> change) {
+        Slot<V> slot = slots.get(key);
+        if (slot != null) {
+            slot.version++;
+            if (slot.value != null) {
+                slot.value = change.apply(slot.value);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        slots.clear();
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    private static final class Slot<V> {
+        private long version;
+        private V value;
+    }
+
+    public record Stamp<K, V>(K key, Object slot, long version) {}
+}
@@ -0,0 +1,119 @@
+package com.eatsandthinks.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.eatsandthinks.demo.util.CuisineIndex;
+
+/**
+ * Filtro de cocinas de /api/places/search: CuisineIndex frente al hasCuisineMatch anterior,
+ * que construía el mapa de sinónimos para cada lugar y cada cocina.
+ *
+ * Ejecutar con:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.eatsandthinks.demo.benchmark.CuisineFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CuisineFilterBenchmark {
+
+    private static final String[] PLACE_TYPES = {
+        "restaurant", "cafe", "bar", "pizzeria", "italian_restaurant", "sushi", "mexican_restaurant",
+        "food", "pub", "coffee", "comida", "bakery", "meal_takeaway", "thai", "ristorante", "night_club"
+    };
+
+    @Param({ "italiano", "asian,bar", "pizza,mexicano,cafe" })
+    public String cuisineTypes;
+
+    @Param({ "60" })
+    public int places;
+
+    private List<String> placeTypes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        placeTypes = new ArrayList<>(places);
+        for (int i = 0; i < places; i++) {
+            placeTypes.add(PLACE_TYPES[random.nextInt(PLACE_TYPES.length)]);
+        }
+    }
+
+    @Benchmark
+    public void legacyHasCuisineMatch(Blackhole blackhole) {
+        List<String> selectedCuisines = Arrays.asList(cuisineTypes.split(","));
+        for (String type : placeTypes) {
+            String placeType = type.toLowerCase();
+            blackhole.consume(selectedCuisines.stream().anyMatch(cuisine -> {
+                String cuisineLower = cuisine.toLowerCase();
+                return placeType.contains(cuisineLower)
+                    || cuisineLower.contains(placeType)
+                    || hasCuisineMatch(placeType, cuisineLower);
+            }));
+        }
+    }
+
+    @Benchmark
+    public void cuisineIndex(Blackhole blackhole) {
+        Predicate<String> filter = CuisineIndex.compile(cuisineTypes);
+        for (String type : placeTypes) {
+            blackhole.consume(filter.test(type));
+        }
+    }
+
+    /**
+     * Copia literal del método que sustituyó CuisineIndex (GooglePlacesController).
+     */
+    private static boolean hasCuisineMatch(String placeType, String cuisine) {
+        Map<String, List<String>> cuisineMapping = new HashMap<>();
+        cuisineMapping.put("restaurant", Arrays.asList("restaurante", "comida", "food"));
+        cuisineMapping.put("cafe", Arrays.asList("café", "cafe", "coffee"));
+        cuisineMapping.put("bar", Arrays.asList("bar", "pub", "cervecería"));
+        cuisineMapping.put("pizza", Arrays.asList("pizzeria", "pizza", "italian"));
+        cuisineMapping.put("asian", Arrays.asList("asiatico", "asiático", "chino", "japonés", "sushi", "thai"));
+        cuisineMapping.put("mexican", Arrays.asList("mexicano", "mexican", "taco", "burrito"));
+        cuisineMapping.put("italian", Arrays.asList("italiano", "italian", "pasta", "ristorante"));
+
+        for (Map.Entry<String, List<String>> entry : cuisineMapping.entrySet()) {
+            if (entry.getValue().contains(cuisine) && placeType.contains(entry.getKey())) {
+                return true;
+            }
+            if (entry.getValue().contains(placeType) && cuisine.contains(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CuisineFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.eatsandthinks.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.entity.User;
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.service.ReviewService.LocalData;
+import com.eatsandthinks.demo.service.ReviewService.ReviewCreationDTO;
+import com.eatsandthinks.demo.support.MySqlIntegrationTest;
+
+/**
+ * Varios hilos crean y borran reseñas a la vez en un local recién creado (sin fila en place_summary,
+ * así que las primeras escrituras pasan por la siembra). Al final el histograma de place_summary
+ * y el rating del local deben coincidir exactamente con resenas.
+ */
+class PlaceSummaryConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final int THREADS = 6;
+    private static final int OPERATIONS_PER_THREAD = 40;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private LocalRepository localRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentCreatesAndDeletesKeepSummaryAndRatingExact() throws Exception {
+        awaitBackgroundTasks();
+        LocalEntity local = new LocalEntity();
+        local.setPlaceId("stress-" + UUID.randomUUID());
+        local.setNombre("Local concurrente");
+        LocalEntity saved = localRepository.save(local);
+        LocalData localData = new LocalData(saved.getPlaceId(), saved.getNombre(), null, null, null, null, null, null);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User user = new User();
+            user.setNombre("Estrés " + i);
+            user.setEmail(UUID.randomUUID() + "@test.local");
+            user.setPassword("x");
+            users.add(userRepository.save(user));
+        }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Long userId = users.get(t).getId();
+            Random random = new Random(t);
+            pool.submit(() -> {
+                Deque<Long> mine = new ArrayDeque<>();
+                try {
+                    start.await();
+                    for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+                        if (!mine.isEmpty() && random.nextInt(3) == 0) {
+                            reviewService.deleteReview(mine.poll(), userId);
+                        } else {
+                            int stars = 1 + random.nextInt(5);
+                            mine.add(reviewService.createReview(new ReviewCreationDTO(stars, null, userId, localData)).reviewId());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "Los hilos no terminaron a tiempo");
+        assertTrue(failures.isEmpty(), () -> "Escrituras fallidas: " + failures);
+
+        Map<String, Object> expected = jdbcTemplate.queryForMap(
+            "SELECT COUNT(*) AS review_count, COALESCE(SUM(puntuacion), 0) AS rating_sum, "
+                + "SUM(puntuacion = 1) AS star_1, SUM(puntuacion = 2) AS star_2, SUM(puntuacion = 3) AS star_3, "
+                + "SUM(puntuacion = 4) AS star_4, SUM(puntuacion = 5) AS star_5 FROM resenas WHERE local_id = ?",
+            saved.getId());
+        Map<String, Object> actual = jdbcTemplate.queryForMap(
+            "SELECT review_count, rating_sum, star_1, star_2, star_3, star_4, star_5 FROM place_summary WHERE local_id = ?",
+            saved.getId());
+        long reviewCount = ((Number) expected.get("review_count")).longValue();
+        assertTrue(reviewCount > 0);
+        for (String column : expected.keySet()) {
+            assertEquals(((Number) expected.get(column)).longValue(), ((Number) actual.get(column)).longValue(), column);
+        }
+
+        Map<String, Object> rating = jdbcTemplate.queryForMap(
+            "SELECT rating, total_valoraciones FROM locales WHERE id = ?", saved.getId());
+        double expectedRating = ((Number) expected.get("rating_sum")).doubleValue() / reviewCount;
+        assertEquals(expectedRating, ((Number) rating.get("rating")).doubleValue(), 1e-9);
+        assertEquals(reviewCount, ((Number) rating.get("total_valoraciones")).longValue());
+    }
+}
@@ -0,0 +1,137 @@
+package com.eatsandthinks.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.eatsandthinks.demo.entity.LocalEntity;
+import com.eatsandthinks.demo.entity.Review;
+import com.eatsandthinks.demo.entity.User;
+import com.eatsandthinks.demo.repository.LocalRepository;
+import com.eatsandthinks.demo.repository.ReviewRepository;
+import com.eatsandthinks.demo.repository.UserRepository;
+import com.eatsandthinks.demo.support.MySqlIntegrationTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Los listados de reseñas deben lanzar un número fijo de sentencias, tengan 4 reseñas o 40.
+ */
+class ReviewQueryCountTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private LocalRepository localRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        awaitBackgroundTasks();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void reviewsOfAPlaceUseFourStatementsWhateverTheirNumber() {
+        LocalEntity local = newLocal();
+        List<User> authors = newUsers(8);
+        addReviews(local, authors, 4);
+        long small = statementsFor(() -> assertEquals(4, reviewService.getReviewsByLocalPlaceId(local.getPlaceId()).size()));
+
+        addReviews(local, authors, 36);
+        long large = statementsFor(() -> assertEquals(40, reviewService.getReviewsByLocalPlaceId(local.getPlaceId()).size()));
+
+        // local, reseñas, autores sin copia (IN) y fotos (IN)
+        assertEquals(4, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void reviewsOfAUserUseFourStatementsWhateverTheirNumber() {
+        User author = newUsers(1).get(0);
+        List<LocalEntity> locals = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            locals.add(newLocal());
+        }
+        for (int i = 0; i < 3; i++) {
+            addReview(locals.get(i), author, i);
+        }
+        long small = statementsFor(() -> assertEquals(3, reviewService.getReviewsByUserId(author.getId()).size()));
+
+        for (int i = 3; i < 30; i++) {
+            addReview(locals.get(i % locals.size()), author, i);
+        }
+        long large = statementsFor(() -> assertEquals(30, reviewService.getReviewsByUserId(author.getId()).size()));
+
+        // reseñas, locales (IN), autores sin copia (IN) y fotos (IN)
+        assertEquals(4, small);
+        assertEquals(small, large);
+    }
+
+    private long statementsFor(Runnable listing) {
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private LocalEntity newLocal() {
+        LocalEntity local = new LocalEntity();
+        local.setPlaceId("test-" + UUID.randomUUID());
+        local.setNombre("Local de prueba");
+        return localRepository.save(local);
+    }
+
+    private List<User> newUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setNombre("Usuario " + i);
+            user.setEmail(UUID.randomUUID() + "@test.local");
+            user.setPassword("x");
+            users.add(userRepository.save(user));
+        }
+        return users;
+    }
+
+    private void addReviews(LocalEntity local, List<User> authors, int count) {
+        for (int i = 0; i < count; i++) {
+            addReview(local, authors.get(i % authors.size()), i);
+        }
+    }
+
+    /**
+     * La mitad sin copia del autor, como las reseñas anteriores a author_name, para que haya consulta de autores.
+     */
+    private void addReview(LocalEntity local, User author, int i) {
+        Review review = new Review();
+        review.setUserId(author.getId());
+        review.setLocalId(local.getId());
+        review.setPuntuacion(1 + i % 5);
+        review.setComentario("Reseña " + i);
+        review.setFecha(LocalDateTime.now().minusMinutes(i));
+        if (i % 2 == 0) {
+            review.setAuthorName(author.getNombre());
+        }
+        reviewRepository.save(review);
+    }
+}
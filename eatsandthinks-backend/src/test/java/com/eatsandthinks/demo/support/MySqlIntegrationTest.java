@@ -0,0 +1,86 @@
+package com.eatsandthinks.demo.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.mysql.MySQLContainer;
+
+/**
+ * Base de los tests de integración: contexto completo contra un MySQL 8 real
+ * (las consultas nativas usan INSERT IGNORE, GREATEST, ventanas...).
+ *
+ * Por defecto levanta un contenedor mysql:8.0 con Testcontainers. Donde no hay Docker se puede
+ * apuntar a un MySQL 8 ya arrancado con -Dit.mysql.url=jdbc:mysql://... (y it.mysql.username /
+ * it.mysql.password); sin ninguna de las dos cosas los tests se omiten.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ExtendWith(MySqlIntegrationTest.RequiresDatabase.class)
+public abstract class MySqlIntegrationTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("it.mysql.url");
+
+    // Uno para toda la ejecución; Testcontainers lo elimina al terminar la JVM
+    private static MySQLContainer mysql;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("it.mysql.username", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("it.mysql.password", ""));
+            return;
+        }
+        MySQLContainer container = container();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    private static synchronized MySQLContainer container() {
+        if (mysql == null) {
+            mysql = new MySQLContainer("mysql:8.0");
+            mysql.start();
+        }
+        return mysql;
+    }
+
+    @Autowired
+    @Qualifier("backgroundExecutor")
+    private ThreadPoolTaskExecutor backgroundExecutor;
+
+    /**
+     * Omite las subclases si no hay ni MySQL externo ni Docker (va antes de cargar el contexto).
+     */
+    static class RequiresDatabase implements ExecutionCondition {
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (EXTERNAL_URL != null || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("MySQL disponible");
+            }
+            return ConditionEvaluationResult.disabled("Sin Docker ni -Dit.mysql.url");
+        }
+    }
+
+    /**
+     * Espera a que terminen las tareas de arranque en segundo plano (siembras, índice de platos...),
+     * que si no se mezclarían con las estadísticas o los datos del test.
+     */
+    protected void awaitBackgroundTasks() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while ((backgroundExecutor.getActiveCount() > 0 || backgroundExecutor.getQueueSize() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}